@@ -4,9 +4,14 @@ import model.Medicine;
 import model.Customer;
 import model.Bill;
 import config.AdminConfig;
-import data_structure.MyLinkedList;
+import config.SearchConfig;
+import data_structure.MyArrayList;
+import data_structure.MyList;
+import util.IsoDate;
+import util.Money;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.Scanner;
 import java.util.regex.Pattern;
 
@@ -193,21 +198,22 @@ public class Main {
         return true;
     }
 
-    private static boolean isValidPrice(double price) {
-        if (price <= 0) {
-            System.out.println("Error: Price must be greater than 0.");
+    // Validates the text as typed, so over-precise input is rejected rather than rounded
+    private static boolean isValidPrice(String priceText) {
+        int point = priceText.indexOf('.');
+        if (point >= 0 && priceText.length() - point - 1 > 2) {
+            System.out.println("Error: Price can only have up to 2 decimal places.");
             return false;
         }
 
-        if (price > 1000000) {
-            System.out.println("Error: Price cannot exceed 1,000,000.");
+        long priceCents = Money.parseCents(priceText);
+        if (priceCents <= 0) {
+            System.out.println("Error: Price must be greater than 0.");
             return false;
         }
 
-        // Check for reasonable decimal places
-        String priceStr = String.valueOf(price);
-        if (priceStr.contains(".") && priceStr.split("\\.")[1].length() > 2) {
-            System.out.println("Error: Price can only have up to 2 decimal places.");
+        if (priceCents > 100_000_000L) {
+            System.out.println("Error: Price cannot exceed 1,000,000.");
             return false;
         }
 
@@ -230,17 +236,17 @@ public class Main {
 
     private static boolean isValidExpiryDate(String expiryDate) {
         try {
-            LocalDate expiry = LocalDate.parse(expiryDate);
+            int expiry = IsoDate.parse(expiryDate);
             LocalDate today = LocalDate.now();
             
             // Check if date is in the future
-            if (!expiry.isAfter(today)) {
+            if (expiry <= today.toEpochDay()) {
                 System.out.println("Error: Expiry date must be in the future.");
                 return false;
             }
 
             // Check if date is not too far in the future (e.g., 10 years)
-            if (expiry.isAfter(today.plusYears(10))) {
+            if (expiry > today.plusYears(10).toEpochDay()) {
                 System.out.println("Error: Expiry date cannot be more than 10 years in the future.");
                 return false;
             }
@@ -253,8 +259,8 @@ public class Main {
     }
 
     // Add method for attractive medicine display
-    private static void displayMedicineTable(MyLinkedList<Medicine> medicines) {
-        if (medicines.isEmpty()) {
+    private static void displayMedicineTable(Iterable<Medicine> medicines) {
+        if (!medicines.iterator().hasNext()) {
             System.out.println(RED + "\nNo medicines found." + RESET);
             return;
         }
@@ -275,9 +281,8 @@ public class Main {
         System.out.println("=".repeat(95) + RESET);
 
         // Print medicines
-        for (int i = 0; i < medicines.size(); i++) {
-            Medicine med = medicines.get(i);
-            String price = String.format("$%.2f", med.getPrice());
+        for (Medicine med : medicines) {
+            String price = "$" + Money.format(med.getPriceCents());
             String stock = med.getQuantity() < 10 ? 
                 RED + med.getQuantity() + RESET : 
                 GREEN + med.getQuantity() + RESET;
@@ -304,6 +309,8 @@ public class Main {
     public static void main(String[] args) {
         // Initialize managers
         PharmacyManager pharmacyManager = new PharmacyManager();
+        // Queued writes still reach the disk if the program is stopped with Ctrl+C
+        Runtime.getRuntime().addShutdownHook(new Thread(pharmacyManager::close));
         CustomerManager customerManager = new CustomerManager(pharmacyManager);
         Scanner scanner = new Scanner(System.in);
 
@@ -378,6 +385,7 @@ public class Main {
             }
         }
 
+        pharmacyManager.close();
         scanner.close();
     }
 
@@ -451,6 +459,8 @@ public class Main {
             System.out.println(GREEN + "4. " + RESET + "Find Medicines by Name");
             System.out.println(GREEN + "5. " + RESET + "Remove Medicine");
             System.out.println(GREEN + "6. " + RESET + "Update Medicine Price");
+            System.out.println(GREEN + "7. " + RESET + "Show Medicines Sorted");
+            System.out.println(GREEN + "8. " + RESET + "Reload Medicines from Disk");
             System.out.println(RED + "0. " + RESET + "Back");
             System.out.print(YELLOW + "\nSelect an option: " + RESET);
 
@@ -490,19 +500,7 @@ public class Main {
                     } while (!validManufacturer);
 
                     // Validate price
-                    double price = 0.0;
-                    boolean validPrice = false;
-                    do {
-                        System.out.print("Enter Price: ");
-                        try {
-                            price = Double.parseDouble(scanner.nextLine());
-                            if (isValidPrice(price)) {
-                                validPrice = true;
-                            }
-                        } catch (NumberFormatException e) {
-                            System.out.println("Error: Please enter a valid number.");
-                        }
-                    } while (!validPrice);
+                    long priceCents = getPriceInput(scanner, "Enter Price: ");
 
                     // Validate expiry date
                     String expiryDate;
@@ -530,7 +528,7 @@ public class Main {
                         }
                     } while (!validQuantity);
 
-                    Medicine newMed = new Medicine(id, name, manufacturer, price, expiryDate, quantity);
+                    Medicine newMed = new Medicine(id, name, manufacturer, priceCents, expiryDate, quantity);
                     pharmacyManager.addMedicine(newMed);
                     waitForEnter(scanner);
                     break;
@@ -546,7 +544,7 @@ public class Main {
 
                     Medicine found = pharmacyManager.findMedicineById(searchId);
                     if (found != null) {
-                        MyLinkedList<Medicine> singleMed = new MyLinkedList<>();
+                        MyList<Medicine> singleMed = new MyArrayList<>();
                         singleMed.add(found);
                         displayMedicineTable(singleMed);
                     } else {
@@ -584,9 +582,36 @@ public class Main {
                         System.out.println("Updating price for ID: " + updatePriceId);
                     }
 
-                    System.out.print("Enter new price: ");
-                    double newPrice = getDoubleInput(scanner);
-                    pharmacyManager.updateMedicinePrice(updatePriceId, newPrice);
+                    long newPriceCents = getPriceInput(scanner, "Enter new price: ");
+                    pharmacyManager.updateMedicinePrice(updatePriceId, newPriceCents);
+                    waitForEnter(scanner);
+                    break;
+
+                case 7:
+                    System.out.println(GREEN + "Sort by: 1. Price  2. Expiry Date  3. Quantity" + RESET);
+                    System.out.print(YELLOW + "Select sort order: " + RESET);
+                    Comparator<Medicine> medicineOrder;
+                    switch (getUserChoice(scanner)) {
+                        case 1:
+                            medicineOrder = Comparator.comparingLong(Medicine::getPriceCents);
+                            break;
+                        case 2:
+                            medicineOrder = Comparator.comparingInt(Medicine::getExpiryEpochDay);
+                            break;
+                        case 3:
+                            medicineOrder = Comparator.comparingInt(Medicine::getQuantity);
+                            break;
+                        default:
+                            System.out.println(RED + "\nInvalid sort option." + RESET);
+                            waitForEnter(scanner);
+                            continue;
+                    }
+                    displayMedicineTable(pharmacyManager.getMedicinesSortedBy(medicineOrder));
+                    waitForEnter(scanner);
+                    break;
+
+                case 8:
+                    pharmacyManager.reloadMedicines();
                     waitForEnter(scanner);
                     break;
 
@@ -613,6 +638,7 @@ public class Main {
             System.out.println(GREEN + "3. " + RESET + "Find Customer by ID");
             System.out.println(GREEN + "4. " + RESET + "Find Customers by Name");
             System.out.println(GREEN + "5. " + RESET + "Edit Customer Information");
+            System.out.println(GREEN + "6. " + RESET + "Show Customers Sorted by Name");
             System.out.println(RED + "0. " + RESET + "Back");
             System.out.print(YELLOW + "\nSelect an option: " + RESET);
 
@@ -751,6 +777,15 @@ public class Main {
                     waitForEnter(scanner);
                     break;
 
+                case 6:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                CUSTOMERS SORTED BY NAME");
+                    System.out.println("=".repeat(60) + RESET);
+                    pharmacyManager.showCustomers(pharmacyManager.getCustomersSortedBy(
+                            Comparator.comparing(Customer::getName, String.CASE_INSENSITIVE_ORDER)));
+                    waitForEnter(scanner);
+                    break;
+
                 case 0:
                     back = true;
                     break;
@@ -770,6 +805,8 @@ public class Main {
             System.out.println("=".repeat(60) + RESET);
             System.out.println(GREEN + "1. " + RESET + "Update Medicine Quantity");
             System.out.println(GREEN + "2. " + RESET + "Display Low Stock Medicines");
+            System.out.println(GREEN + "3. " + RESET + "Next Medicines to Expire");
+            System.out.println(GREEN + "4. " + RESET + "Medicines Expiring Within Days");
             System.out.println(RED + "0. " + RESET + "Back");
             System.out.print(YELLOW + "\nSelect an option: " + RESET);
 
@@ -804,6 +841,26 @@ public class Main {
                     waitForEnter(scanner);
                     break;
 
+                case 3:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                NEXT MEDICINES TO EXPIRE");
+                    System.out.println("=".repeat(60) + RESET);
+                    System.out.print(GREEN + "How many medicines to show: " + RESET);
+                    int count = getIntInput(scanner);
+                    pharmacyManager.displayNextToExpire(count);
+                    waitForEnter(scanner);
+                    break;
+
+                case 4:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                EXPIRING MEDICINES");
+                    System.out.println("=".repeat(60) + RESET);
+                    System.out.print(GREEN + "Enter number of days: " + RESET);
+                    int days = getIntInput(scanner);
+                    pharmacyManager.displayExpiringWithin(days);
+                    waitForEnter(scanner);
+                    break;
+
                 case 0:
                     back = true;
                     break;
@@ -823,6 +880,11 @@ public class Main {
             System.out.println("=".repeat(60) + RESET);
             System.out.println(GREEN + "1. " + RESET + "Show All Transactions");
             System.out.println(GREEN + "2. " + RESET + "Create Transaction");
+            System.out.println(GREEN + "3. " + RESET + "Show Transactions Sorted");
+            System.out.println(GREEN + "4. " + RESET + "Transactions by Date Range");
+            System.out.println(GREEN + "5. " + RESET + "Today's Sales");
+            System.out.println(GREEN + "6. " + RESET + "Sales in Last N Days");
+            System.out.println(GREEN + "7. " + RESET + "Sales Summary");
             System.out.println(RED + "0. " + RESET + "Back");
             System.out.print(YELLOW + "\nSelect an option: " + RESET);
 
@@ -852,6 +914,66 @@ public class Main {
                     waitForEnter(scanner);
                     break;
 
+                case 3:
+                    System.out.println(GREEN + "Sort by: 1. Amount  2. Date" + RESET);
+                    System.out.print(YELLOW + "Select sort order: " + RESET);
+                    PharmacyManager.TransactionOrder transactionOrder;
+                    switch (getUserChoice(scanner)) {
+                        case 1:
+                            transactionOrder = PharmacyManager.TransactionOrder.AMOUNT;
+                            break;
+                        case 2:
+                            transactionOrder = PharmacyManager.TransactionOrder.DATE;
+                            break;
+                        default:
+                            System.out.println(RED + "\nInvalid sort option." + RESET);
+                            waitForEnter(scanner);
+                            continue;
+                    }
+                    pharmacyManager.showTransactionsSortedBy(transactionOrder);
+                    waitForEnter(scanner);
+                    break;
+
+                case 4:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                TRANSACTIONS BY DATE RANGE");
+                    System.out.println("=".repeat(60) + RESET);
+                    LocalDate fromDate = readDate(scanner, "Enter start date (YYYY-MM-DD): ");
+                    LocalDate toDate = readDate(scanner, "Enter end date (YYYY-MM-DD): ");
+                    if (toDate.isBefore(fromDate)) {
+                        System.out.println(RED + "\nEnd date cannot be before start date." + RESET);
+                    } else {
+                        pharmacyManager.showTransactionsBetween(fromDate, toDate);
+                    }
+                    waitForEnter(scanner);
+                    break;
+
+                case 5:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                    TODAY'S SALES");
+                    System.out.println("=".repeat(60) + RESET);
+                    pharmacyManager.showTransactionsBetween(LocalDate.now(), LocalDate.now());
+                    waitForEnter(scanner);
+                    break;
+
+                case 6:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                SALES IN LAST N DAYS");
+                    System.out.println("=".repeat(60) + RESET);
+                    System.out.print(GREEN + "Enter number of days: " + RESET);
+                    int lastDays = Math.max(1, getIntInput(scanner));
+                    pharmacyManager.showTransactionsBetween(LocalDate.now().minusDays(lastDays - 1), LocalDate.now());
+                    waitForEnter(scanner);
+                    break;
+
+                case 7:
+                    System.out.println(CYAN + BOLD + "\n" + "=".repeat(60));
+                    System.out.println("                    SALES SUMMARY");
+                    System.out.println("=".repeat(60) + RESET);
+                    pharmacyManager.displaySalesSummary(5);
+                    waitForEnter(scanner);
+                    break;
+
                 case 0:
                     back = true;
                     break;
@@ -1065,7 +1187,7 @@ public class Main {
                     System.out.println("=".repeat(60) + RESET);
                     System.out.print(GREEN + "Enter medicine name to search: " + RESET);
                     String searchName = scanner.nextLine();
-                    customerManager.searchMedicinesByName(searchName);
+                    customerManager.searchMedicinesByName(searchName, SearchConfig.getFuzzyMaxDistance());
                     addToCartOption(customerManager, scanner);
                     break;
 
@@ -1217,12 +1339,26 @@ public class Main {
         }
     }
 
-    private static double getDoubleInput(Scanner scanner) {
+    // Prompt until the input passes isValidPrice, returning it in cents
+    private static long getPriceInput(Scanner scanner, String prompt) {
         while (true) {
+            System.out.print(prompt);
             try {
-                return Double.parseDouble(scanner.nextLine().trim());
+                String priceText = scanner.nextLine().trim();
+                if (isValidPrice(priceText)) return Money.parseCents(priceText);
             } catch (NumberFormatException e) {
-                System.out.print("Please enter a valid number: ");
+                System.out.println("Error: Please enter a valid number.");
+            }
+        }
+    }
+
+    private static LocalDate readDate(Scanner scanner, String prompt) {
+        while (true) {
+            System.out.print(GREEN + prompt + RESET);
+            try {
+                return LocalDate.parse(scanner.nextLine().trim());
+            } catch (Exception e) {
+                System.out.println(RED + "Error: Invalid date format. Please use YYYY-MM-DD." + RESET);
             }
         }
     }
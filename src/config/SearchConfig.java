@@ -0,0 +1,16 @@
+package config;
+
+public class SearchConfig {
+    // Typos tolerated by the fuzzy fallback when a name search finds nothing;
+    // override with -Dpharmacy.search.fuzzyMaxDistance=1, or 0 to turn the fallback off
+    public static int getFuzzyMaxDistance() {
+        String configured = System.getProperty("pharmacy.search.fuzzyMaxDistance");
+        if (configured == null) return 2;
+        try {
+            return Math.max(0, Integer.parseInt(configured.trim()));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid fuzzy search distance '" + configured + "', using 2.");
+            return 2;
+        }
+    }
+}
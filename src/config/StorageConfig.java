@@ -0,0 +1,55 @@
+package config;
+
+import storage.TransactionJournal.FsyncPolicy;
+
+public class StorageConfig {
+    // Fsync policy for the transaction journal and the medicine change log;
+    // override with -Dpharmacy.journal.fsync=NEVER to trade durability for speed
+    public static FsyncPolicy getJournalFsyncPolicy() {
+        String configured = System.getProperty("pharmacy.journal.fsync");
+        if (configured == null) return FsyncPolicy.EVERY_APPEND;
+        try {
+            return FsyncPolicy.valueOf(configured.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown fsync policy '" + configured + "', using EVERY_APPEND.");
+            return FsyncPolicy.EVERY_APPEND;
+        }
+    }
+
+    // Medicine change records allowed to pile up before the snapshot is rewritten in the background
+    public static int getMedicineCompactionThreshold() {
+        return intProperty("pharmacy.medicines.compactAfter", 1000, 1);
+    }
+
+    // Seconds between background compactions of the medicine change log, so a quiet log is still
+    // folded into the snapshot; 0 compacts only at the record threshold and on close
+    public static int getMedicineCompactionIntervalSeconds() {
+        return intProperty("pharmacy.medicines.compactEverySeconds", 300, 0);
+    }
+
+    // Most write requests the background writer commits together
+    public static int getPersistenceMaxBatchSize() {
+        return intProperty("pharmacy.persist.maxBatch", 64, 1);
+    }
+
+    // Longest the background writer waits for more requests before committing a batch
+    public static int getPersistenceMaxDelayMillis() {
+        return intProperty("pharmacy.persist.maxDelayMs", 2, 0);
+    }
+
+    // Worker threads used to parse the transaction history at startup; 1 loads it sequentially
+    public static int getLoadParallelism() {
+        return intProperty("pharmacy.load.parallelism", Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    private static int intProperty(String name, int defaultValue, int min) {
+        String configured = System.getProperty(name);
+        if (configured == null) return defaultValue;
+        try {
+            return Math.max(min, Integer.parseInt(configured.trim()));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value for " + name + " '" + configured + "', using " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+}
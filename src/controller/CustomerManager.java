@@ -1,10 +1,12 @@
 package controller;
 
+import util.Money;
 import model.Customer;
 import model.Medicine;
 import model.Cart;
 import model.Bill;
-import data_structure.MyLinkedList;
+import data_structure.MyList;
+import storage.CatalogSnapshot;
 
 public class CustomerManager {
     // Add color constants for better interface
@@ -51,9 +53,15 @@ public class CustomerManager {
         System.out.println("Logged out successfully.");
     }
 
-    // Search for medicines by name
-    public void searchMedicinesByName(String name) {
-        MyLinkedList<Medicine> results = pharmacyManager.findMedicinesByName(name);
+    // Search for medicines by name, falling back to matches within fuzzyMaxDistance typos
+    // when nothing contains the query (0 disables the fallback)
+    public void searchMedicinesByName(String name, int fuzzyMaxDistance) {
+        MyList<Medicine> results = pharmacyManager.findMedicinesByName(name);
+        String title = "Search Results for '" + name + "'";
+        if (results.isEmpty() && fuzzyMaxDistance > 0) {
+            results = pharmacyManager.findMedicinesFuzzy(name, fuzzyMaxDistance);
+            title = "Did you mean? (closest matches for '" + name + "')";
+        }
         if (results.isEmpty()) {
             System.out.println(RED + "\nNo medicines found matching '" + name + "'" + RESET);
             return;
@@ -69,7 +77,7 @@ public class CustomerManager {
 
         // Print header
         System.out.println(CYAN + BOLD + "\n" + "=".repeat(95));
-        System.out.println("Search Results for '" + name + "'");
+        System.out.println(title);
         System.out.println("=".repeat(95));
         System.out.printf("%-" + idWidth + "s | %-" + nameWidth + "s | %-" + manufacturerWidth + "s | %-" + 
             priceWidth + "s | %-" + expiryWidth + "s | %-" + quantityWidth + "s\n", 
@@ -77,9 +85,8 @@ public class CustomerManager {
         System.out.println("=".repeat(95) + RESET);
 
         // Print medicines
-        for (int i = 0; i < results.size(); i++) {
-            Medicine med = results.get(i);
-            String price = String.format("$%.2f", med.getPrice());
+        for (Medicine med : results) {
+            String price = "$" + Money.format(med.getPriceCents());
             String stock = med.getQuantity() < 10 ? 
                 RED + med.getQuantity() + RESET : 
                 GREEN + med.getQuantity() + RESET;
@@ -105,7 +112,7 @@ public class CustomerManager {
 
     // Display available medicines
     public void viewAvailableMedicines() {
-        MyLinkedList<Medicine> medicines = pharmacyManager.getMedicines();
+        CatalogSnapshot medicines = pharmacyManager.getMedicines();
         if (medicines.isEmpty()) {
             System.out.println(RED + "\nNo medicines found." + RESET);
             return;
@@ -127,9 +134,8 @@ public class CustomerManager {
         System.out.println("=".repeat(95) + RESET);
 
         // Print medicines
-        for (int i = 0; i < medicines.size(); i++) {
-            Medicine med = medicines.get(i);
-            String price = String.format("$%.2f", med.getPrice());
+        for (Medicine med : medicines) {
+            String price = "$" + Money.format(med.getPriceCents());
             String stock = med.getQuantity() < 10 ? 
                 RED + med.getQuantity() + RESET : 
                 GREEN + med.getQuantity() + RESET;
@@ -255,10 +261,9 @@ public class CustomerManager {
         }
 
         // Check for duplicate phone number
-        MyLinkedList<Customer> existingCustomers = pharmacyManager.findCustomersByPhone(phoneNumber);
-        if (!existingCustomers.isEmpty()) {
+        if (pharmacyManager.existsByPhone(phoneNumber)) {
             System.out.println("Error: Phone number already registered with customer ID: " + 
-                existingCustomers.get(0).getCustomerId());
+                pharmacyManager.findCustomerByPhone(phoneNumber).getCustomerId());
             return false;
         }
 
@@ -269,10 +274,9 @@ public class CustomerManager {
         }
 
         // Check for duplicate email
-        MyLinkedList<Customer> existingEmails = pharmacyManager.findCustomersByEmail(email);
-        if (!existingEmails.isEmpty()) {
+        if (pharmacyManager.existsByEmail(email)) {
             System.out.println("Error: Email already registered with customer ID: " + 
-                existingEmails.get(0).getCustomerId());
+                pharmacyManager.findCustomerByEmail(email).getCustomerId());
             return false;
         }
 
@@ -296,24 +300,24 @@ public class CustomerManager {
 
     // Check if phone number is already registered
     public boolean isPhoneRegistered(String phoneNumber) {
-        return !pharmacyManager.findCustomersByPhone(phoneNumber).isEmpty();
+        return pharmacyManager.existsByPhone(phoneNumber);
     }
 
     // Get customer ID by phone number
     public String getCustomerIdByPhone(String phoneNumber) {
-        MyLinkedList<Customer> customers = pharmacyManager.findCustomersByPhone(phoneNumber);
-        return customers.isEmpty() ? null : customers.get(0).getCustomerId();
+        Customer customer = pharmacyManager.findCustomerByPhone(phoneNumber);
+        return customer == null ? null : customer.getCustomerId();
     }
 
     // Check if email is already registered
     public boolean isEmailRegistered(String email) {
-        return !pharmacyManager.findCustomersByEmail(email).isEmpty();
+        return pharmacyManager.existsByEmail(email);
     }
 
     // Get customer ID by email
     public String getCustomerIdByEmail(String email) {
-        MyLinkedList<Customer> customers = pharmacyManager.findCustomersByEmail(email);
-        return customers.isEmpty() ? null : customers.get(0).getCustomerId();
+        Customer customer = pharmacyManager.findCustomerByEmail(email);
+        return customer == null ? null : customer.getCustomerId();
     }
 
     // Get cart
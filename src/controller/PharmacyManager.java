@@ -1,11 +1,31 @@
 package controller;
 
 import model.*;
+import config.StorageConfig;
 import util.CSVUtility;
+import util.IsoDate;
+import util.Money;
+import util.TransactionIdGenerator;
+import data_structure.IndexedMinHeap;
+import data_structure.IntIntMap;
+import data_structure.MyArrayList;
+import data_structure.MyHashMap;
 import data_structure.MyLinkedList;
-
+import data_structure.MyList;
+import data_structure.MySkipList;
+import data_structure.ObjectIntMap;
+import data_structure.OrderStatisticTree;
+import storage.CatalogSnapshot;
+import storage.MedicineDeltaLog;
+import storage.PersistenceService;
+import storage.TransactionColumns;
+import storage.TransactionJournal;
+
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.UUID;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
 
 public class PharmacyManager {
     // Add color constants for better interface
@@ -15,27 +35,319 @@ public class PharmacyManager {
     private static final String YELLOW = "\u001B[33m";
     private static final String CYAN = "\u001B[36m";
     private static final String BOLD = "\u001B[1m";
-
-    private final MyLinkedList<Medicine> medicines;
-    private final MyLinkedList<Customer> customers;
-    private final MyLinkedList<Transaction> transactions;
-    private final MyLinkedList<Bill> bills;
+    // Transaction table columns: ID, customer, medicine, quantity, amount, date
+    private static final String TRANSACTION_HEADER_FORMAT = "%-12s | %-10s | %-10s | %-10s | %-12s | %-12s\n";
+    private static final String TRANSACTION_ROW_FORMAT = "%-12s | %-10s | %-10s | %-10d | %-12s | %-12s\n";
+    // Rows materialized at a time while printing the sorted history
+    private static final int REPORT_PAGE_ROWS = 1000;
+
+    private final MyList<Customer> customers;
+    // Transaction history, stored column-wise
+    private final TransactionColumns transactions;
+    private final MyList<Bill> bills;
+    // Single background writer for every data file, so the counter never waits on the disk
+    private final PersistenceService persistence;
+    private boolean closed;
+    // Sales are appended here; null if the file could not be opened (falls back to full rewrites)
+    private final TransactionJournal transactionJournal;
+    // Medicine changes are appended here; null if the file could not be opened (falls back to full rewrites)
+    private final MedicineDeltaLog medicineLog;
+    // Current catalog version with its ID and name indexes. Readers take the reference once
+    // and work on that version lock-free; writers hold catalogWriteLock, build the next
+    // version and publish it with one volatile write.
+    private volatile CatalogSnapshot catalog;
+    private final Object catalogWriteLock = new Object();
+    // In-stock medicines ordered by expiry (epoch day), keyed by upper-cased ID
+    private final IndexedMinHeap<String, Medicine> expiryHeap;
+    // Medicines ordered by stock quantity for low-stock threshold queries
+    private final OrderStatisticTree<Medicine> stockIndex;
+    // Transaction row numbers ordered by date (epoch day), then by arrival, for date-range queries
+    private final MySkipList<Integer> transactionDateIndex;
+    // Unique customer indexes: ID and email upper-cased, phone as entered
+    private final MyHashMap<String, Customer> customerIdIndex;
+    private final MyHashMap<String, Customer> customerPhoneIndex;
+    private final MyHashMap<String, Customer> customerEmailIndex;
 
     // Constructor: loads medicines, customers, and transactions from CSV files
     public PharmacyManager() {
-        medicines = CSVUtility.loadMedicines("data/medicines.csv");
+        MyList<Medicine> medicines = loadCatalogMedicines();
         customers = CSVUtility.loadCustomers("data/customers.csv");
-        transactions = CSVUtility.loadTransactions("data/transactions.csv");
-        bills = new MyLinkedList<>();
+        transactions = CSVUtility.loadTransactions("data/transactions.csv", StorageConfig.getLoadParallelism());
+        persistence = new PersistenceService(StorageConfig.getPersistenceMaxBatchSize(),
+                StorageConfig.getPersistenceMaxDelayMillis());
+        transactionJournal = openTransactionJournal();
+        bills = new MyArrayList<>();
+        expiryHeap = new IndexedMinHeap<>(medicines.size());
+        stockIndex = new OrderStatisticTree<>();
+        catalog = new CatalogSnapshot(1, medicines);
+        medicineLog = openMedicineLog();
+        rebuildStockIndexes();
+        customerIdIndex = new MyHashMap<>(customers.size());
+        customerPhoneIndex = new MyHashMap<>(customers.size());
+        customerEmailIndex = new MyHashMap<>(customers.size());
+        rebuildCustomerIndexes();
+        transactionDateIndex = new MySkipList<>();
+        for (int row = 0; row < transactions.size(); row++) {
+            transactionDateIndex.insert(transactions.getEpochDay(row), row);
+        }
+    }
+
+    private static TransactionJournal openTransactionJournal() {
+        try {
+            return new TransactionJournal("data/transactions.csv", StorageConfig.getJournalFsyncPolicy());
+        } catch (IOException e) {
+            System.out.println("Error opening transaction journal: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Last medicines snapshot with the change log applied on top
+    private static MyList<Medicine> loadCatalogMedicines() {
+        return MedicineDeltaLog.replay("data/medicines.delta", CSVUtility.loadMedicines("data/medicines.csv"));
+    }
+
+    private MedicineDeltaLog openMedicineLog() {
+        try {
+            return new MedicineDeltaLog("data/medicines.csv", "data/medicines.delta",
+                    StorageConfig.getJournalFsyncPolicy(), this::getCatalog,
+                    StorageConfig.getMedicineCompactionThreshold(),
+                    StorageConfig.getMedicineCompactionIntervalSeconds());
+        } catch (IOException e) {
+            System.out.println("Error opening medicine change log: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Dirty tracking: every medicine a writer adds, changes or removes is marked here and
+    // written by persistMedicineChanges once the new catalog version is published
+    private void markMedicineUpdated(Medicine med) {
+        if (medicineLog != null) medicineLog.markUpdated(med);
+    }
+
+    private void markMedicineRemoved(String id) {
+        if (medicineLog != null) medicineLog.markRemoved(id);
+    }
+
+    // Writes finish on the background writer after the caller has moved on, so a failed one is
+    // reported when it fails: the change is in memory but will be missing after a restart
+    private static CompletableFuture<Void> reportFailure(CompletableFuture<Void> write, String what) {
+        return write.whenComplete((ignored, error) -> {
+            if (error != null) {
+                System.out.println(RED + "\nError: " + what + " could not be saved (" + error.getMessage()
+                        + ") and will be lost on restart." + RESET);
+            }
+        });
+    }
+
+    // Queue the dirty medicines for writing; callers hold catalogWriteLock and have published
+    // the catalog. The future completes once the change is durable.
+    private CompletableFuture<Void> persistMedicineChanges() {
+        if (medicineLog == null) {
+            return reportFailure(persistence.save("data/medicines.csv", CSVUtility.formatMedicines(catalog)),
+                    "Medicine changes");
+        }
+        return reportFailure(persistence.append(medicineLog, medicineLog.drainDirty()), "Medicine changes");
+    }
+
+    // Queue history rows [fromRow, end) for the journal
+    private CompletableFuture<Void> persistTransactions(int fromRow) {
+        if (transactionJournal == null) {
+            return reportFailure(persistence.save("data/transactions.csv",
+                    CSVUtility.formatTransactions(transactions)), "Sales");
+        }
+        return reportFailure(persistence.append(transactionJournal,
+                TransactionJournal.formatRows(transactions, fromRow, transactions.size())), "Sales");
+    }
+
+    private CompletableFuture<Void> persistCustomers() {
+        return reportFailure(persistence.save("data/customers.csv", CSVUtility.formatCustomers(customers)),
+                "Customer changes");
+    }
+
+    // Completes once every change made so far is on disk
+    public CompletableFuture<Void> flushPendingWrites() {
+        return persistence.flush();
+    }
+
+    // Write out everything still queued, then release the journal and change log files.
+    // Safe to call more than once (Main calls it on exit and from a shutdown hook).
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        persistence.close();
+        if (transactionJournal != null) {
+            try {
+                transactionJournal.close();
+            } catch (IOException e) {
+                System.out.println("Error closing transaction journal: " + e.getMessage());
+            }
+        }
+        if (medicineLog != null) {
+            synchronized (catalogWriteLock) {
+                try {
+                    medicineLog.close();
+                } catch (IOException e) {
+                    System.out.println("Error closing medicine change log: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Append a transaction to the history and its date index
+    private void recordTransaction(Transaction transaction) {
+        int row = transactions.add(transaction);
+        transactionDateIndex.insert(transactions.getEpochDay(row), row);
+    }
+
+    // Normalize an ID into its index key
+    private static String indexKey(String id) {
+        return id.toUpperCase();
+    }
+
+    // Rebuild the stock and expiry indexes from the current catalog (first occurrence of an ID wins)
+    private void rebuildStockIndexes() {
+        expiryHeap.clear();
+        stockIndex.clear();
+        CatalogSnapshot current = catalog;
+        for (Medicine med : current) {
+            stockIndex.put(med, med.getQuantity());
+            if (current.findById(med.getId()) == med) {
+                trackExpiry(med);
+            }
+        }
+    }
+
+    // Publish the next catalog version; callers hold catalogWriteLock
+    private void publishCatalog(CatalogSnapshot next) {
+        catalog = next;
+    }
+
+    // Keep a medicine's expiry heap entry in line with its stock: only in-stock medicines with
+    // a known expiry take part in expiry ordering
+    private void trackExpiry(Medicine med) {
+        String key = indexKey(med.getId());
+        if (med.getQuantity() <= 0 || !med.hasKnownExpiry()) {
+            expiryHeap.remove(key);
+        } else {
+            expiryHeap.insertOrUpdate(key, med.getExpiryEpochDay(), med);
+        }
+    }
+
+    // Single place where stock levels change so every quantity-dependent index stays current.
+    // Returns the working version with the change; it becomes visible once that version is published.
+    private CatalogSnapshot setMedicineQuantity(CatalogSnapshot working, Medicine med, int quantity) {
+        Medicine updated = med.withQuantity(quantity);
+        markMedicineUpdated(updated);
+        stockIndex.remove(med);
+        stockIndex.put(updated, quantity);
+        trackExpiry(updated);
+        return working.withReplaced(updated);
+    }
+
+    // Rebuild the customer ID, phone and email indexes (first occurrence of a key wins)
+    private void rebuildCustomerIndexes() {
+        customerIdIndex.clear();
+        customerPhoneIndex.clear();
+        customerEmailIndex.clear();
+        for (Customer cust : customers) {
+            customerIdIndex.putIfAbsent(indexKey(cust.getCustomerId()), cust);
+            customerPhoneIndex.putIfAbsent(cust.getPhoneNumber(), cust);
+            customerEmailIndex.putIfAbsent(indexKey(cust.getEmail()), cust);
+        }
+    }
+
+    // Reload medicines from the snapshot and change log, picking up edits made to the files
+    // outside the program; the ID, name, stock and expiry indexes are rebuilt with the catalog
+    public void reloadMedicines() {
+        synchronized (catalogWriteLock) {
+            // Changes still queued for the writer must be on disk, or the reload would lose them
+            persistence.flush().join();
+            publishCatalog(new CatalogSnapshot(catalog.getVersion() + 1, loadCatalogMedicines()));
+            rebuildStockIndexes();
+        }
+        System.out.println("Reloaded " + catalog.size() + " medicines.");
+    }
+
+    // Current catalog version; it never changes once obtained
+    public CatalogSnapshot getCatalog() {
+        return catalog;
     }
 
-    // Get medicines list
-    public MyLinkedList<Medicine> getMedicines() {
-        return medicines;
+    // Increases on every catalog change, for caches keyed on the catalog contents
+    public long getCatalogVersion() {
+        return catalog.getVersion();
+    }
+
+    // Current medicines, read-only; the catalog version is immutable, so no copy is needed
+    public CatalogSnapshot getMedicines() {
+        return catalog;
+    }
+
+    // Sorted copy of the catalog; the stored order is left untouched
+    public MyList<Medicine> getMedicinesSortedBy(Comparator<Medicine> comparator) {
+        MyArrayList<Medicine> sorted = catalog.toList();
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    // Sort keys for the transaction history report
+    public enum TransactionOrder {
+        AMOUNT,
+        DATE
+    }
+
+    // Row numbers of the whole history in report order; ties keep history order. Only the row
+    // numbers are sorted, in place on a linked list (MyLinkedList.sort relinks its nodes), so the
+    // history itself is never copied. Callers hold catalogWriteLock.
+    private MyLinkedList<Integer> sortedTransactionRows(TransactionOrder order) {
+        MyLinkedList<Integer> rows = new MyLinkedList<>();
+        for (int row = 0; row < transactions.size(); row++) {
+            rows.add(row);
+        }
+        rows.sort(order == TransactionOrder.AMOUNT
+                ? Comparator.comparingLong(transactions::getAmountCents)
+                : Comparator.comparingInt(transactions::getEpochDay));
+        return rows;
+    }
+
+    // Show the whole history sorted by amount or date. Rows are turned into Transactions one page
+    // at a time while printing, so the report never holds a materialized copy of the history.
+    public void showTransactionsSortedBy(TransactionOrder order) {
+        MyLinkedList<Integer> rows;
+        synchronized (catalogWriteLock) {
+            rows = sortedTransactionRows(order);
+        }
+        if (rows.isEmpty()) {
+            System.out.println(RED + "\nNo transactions found." + RESET);
+            return;
+        }
+        printTransactionHeader();
+        MyArrayList<Transaction> page = new MyArrayList<>(Math.min(REPORT_PAGE_ROWS, rows.size()));
+        Iterator<Integer> it = rows.iterator();
+        while (it.hasNext()) {
+            page.clear();
+            // History rows never change once appended, so each page only needs the lock briefly
+            synchronized (catalogWriteLock) {
+                while (it.hasNext() && page.size() < REPORT_PAGE_ROWS) {
+                    page.add(transactions.materialize(it.next()));
+                }
+            }
+            printTransactionRows(page);
+        }
+        printTransactionFooter();
+    }
+
+    // Sorted copy of the customer list
+    public MyList<Customer> getCustomersSortedBy(Comparator<Customer> comparator) {
+        MyArrayList<Customer> sorted = new MyArrayList<>(customers.size());
+        sorted.addAll(customers);
+        sorted.sort(comparator);
+        return sorted;
     }
 
     // Show all medicines
     public void showAllMedicines() {
+        CatalogSnapshot medicines = catalog;
         if (medicines.isEmpty()) {
             System.out.println(RED + "\nNo medicines found." + RESET);
             return;
@@ -57,9 +369,8 @@ public class PharmacyManager {
         System.out.println("=".repeat(95) + RESET);
 
         // Print medicines
-        for (int i = 0; i < medicines.size(); i++) {
-            Medicine med = medicines.get(i);
-            String price = String.format("$%.2f", med.getPrice());
+        for (Medicine med : medicines) {
+            String price = "$" + Money.format(med.getPriceCents());
             String stock = med.getQuantity() < 10 ? 
                 RED + med.getQuantity() + RESET : 
                 GREEN + med.getQuantity() + RESET;
@@ -85,6 +396,11 @@ public class PharmacyManager {
 
     // Show all customers
     public void showAllCustomers() {
+        showCustomers(customers);
+    }
+
+    // Show the given customers in table form
+    public void showCustomers(MyList<Customer> customers) {
         if (customers.isEmpty()) {
             System.out.println(RED + "\nNo customers found." + RESET);
             return;
@@ -103,8 +419,7 @@ public class PharmacyManager {
         System.out.println("=".repeat(85) + RESET);
 
         // Print customers
-        for (int i = 0; i < customers.size(); i++) {
-            Customer cust = customers.get(i);
+        for (Customer cust : customers) {
             System.out.printf("%-" + idWidth + "s | %-" + nameWidth + "s | %-" + phoneWidth + "s | %-" + emailWidth + "s\n",
                 cust.getCustomerId(),
                 cust.getName(),
@@ -116,34 +431,129 @@ public class PharmacyManager {
         System.out.println(CYAN + BOLD + "=".repeat(85) + RESET);
     }
 
+    // The history and its date index grow under catalogWriteLock (processCheckout,
+    // createTransaction), so readers copy what they need under the same lock and print after
+
     // Show all transactions
     public void showAllTransactions() {
-        if (transactions.isEmpty()) {
+        MyList<Transaction> all;
+        synchronized (catalogWriteLock) {
+            all = transactions.materializeAll();
+        }
+        showTransactions(all);
+    }
+
+    // Transactions dated between from and to (inclusive), oldest first
+    public MyList<Transaction> findTransactionsBetween(LocalDate from, LocalDate to) {
+        synchronized (catalogWriteLock) {
+            return transactions.materialize(transactionDateIndex.range(from.toEpochDay(), to.toEpochDay()));
+        }
+    }
+
+    // Show transactions in a date range followed by their total sales
+    public void showTransactionsBetween(LocalDate from, LocalDate to) {
+        MyList<Transaction> inRange = findTransactionsBetween(from, to);
+        showTransactions(inRange);
+        if (!inRange.isEmpty()) {
+            long cents = 0;
+            for (Transaction tx : inRange) {
+                cents += tx.getTotalAmountCents();
+            }
+            System.out.printf(GREEN + "%d transaction(s), total sales: $%s\n" + RESET, inRange.size(), Money.format(cents));
+        }
+    }
+
+    // Total sales over the whole transaction history: one pass over the amount column
+    public long getTotalRevenueCents() {
+        synchronized (catalogWriteLock) {
+            return transactions.totalAmountCents();
+        }
+    }
+
+    // Overall sales figures, best-selling medicines and the busiest day
+    public void displaySalesSummary(int topN) {
+        int transactionCount;
+        long unitsSold;
+        long revenueCents;
+        IntIntMap unitsByDay = new IntIntMap();
+        ObjectIntMap<String> unitsByMedicine;
+        synchronized (catalogWriteLock) {
+            transactionCount = transactions.size();
+
+            // Sequential scan of the code, quantity and date columns
+            int[] unitsByCode = new int[transactions.distinctMedicines()];
+            for (int row = 0; row < transactionCount; row++) {
+                int quantity = transactions.getQuantity(row);
+                unitsByCode[transactions.getMedicineCode(row)] += quantity;
+                unitsByDay.addTo(transactions.getEpochDay(row), quantity);
+            }
+            unitsSold = transactions.totalQuantity();
+            revenueCents = transactions.totalAmountCents();
+
+            // Fold codes into case-insensitive medicine IDs, once per distinct medicine
+            unitsByMedicine = new ObjectIntMap<>(unitsByCode.length);
+            for (int code = 0; code < unitsByCode.length; code++) {
+                unitsByMedicine.addTo(indexKey(transactions.medicineIdOf(code)), unitsByCode[code]);
+            }
+        }
+        if (transactionCount == 0) {
             System.out.println(RED + "\nNo transactions found." + RESET);
             return;
         }
 
-        // Calculate column widths
-        int transIdWidth = 12;
-        int customerIdWidth = 10;
-        int medicineIdWidth = 10;
-        int quantityWidth = 10;
-        int amountWidth = 12;
-        int dateWidth = 12;
+        System.out.printf("\nTransactions: %d\n", transactionCount);
+        System.out.printf("Units sold:   %d\n", unitsSold);
+        System.out.printf("Total sales:  $%s\n", Money.format(revenueCents));
 
-        // Print header
+        // Busiest day by units sold, earliest wins a tie
+        int[] busiest = {0, -1};
+        unitsByDay.forEach((day, units) -> {
+            if (units > busiest[1] || (units == busiest[1] && day < busiest[0])) {
+                busiest[0] = day;
+                busiest[1] = units;
+            }
+        });
+        System.out.printf("Busiest day:  %s (%d units)\n", IsoDate.format(busiest[0]), busiest[1]);
+
+        // Best sellers by units, ties broken by ID
+        MyArrayList<String> sold = new MyArrayList<>(unitsByMedicine.size());
+        unitsByMedicine.forEach((id, units) -> sold.add(id));
+        sold.sort((a, b) -> {
+            int cmp = Integer.compare(unitsByMedicine.getOrDefault(b, 0), unitsByMedicine.getOrDefault(a, 0));
+            return cmp != 0 ? cmp : a.compareTo(b);
+        });
+        System.out.println(CYAN + BOLD + "\nTop " + Math.min(topN, sold.size()) + " medicines by units sold" + RESET);
+        for (int i = 0; i < sold.size() && i < topN; i++) {
+            String id = sold.get(i);
+            Medicine med = findMedicineById(id);
+            System.out.printf("%-10s | %-25s | %d\n", id, med == null ? "(removed)" : med.getName(),
+                unitsByMedicine.getOrDefault(id, 0));
+        }
+        System.out.println(CYAN + BOLD + "=".repeat(60) + RESET);
+    }
+
+    // Show the given transactions in table form
+    public void showTransactions(MyList<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            System.out.println(RED + "\nNo transactions found." + RESET);
+            return;
+        }
+        printTransactionHeader();
+        printTransactionRows(transactions);
+        printTransactionFooter();
+    }
+
+    private static void printTransactionHeader() {
         System.out.println(CYAN + BOLD + "\n" + "=".repeat(80));
-        System.out.printf("%-" + transIdWidth + "s | %-" + customerIdWidth + "s | %-" + medicineIdWidth + "s | %-" + 
-            quantityWidth + "s | %-" + amountWidth + "s | %-" + dateWidth + "s\n", 
+        System.out.printf(TRANSACTION_HEADER_FORMAT,
             "Transaction ID", "Customer ID", "Medicine ID", "Quantity", "Amount", "Date");
         System.out.println("=".repeat(80) + RESET);
+    }
 
-        // Print transactions
-        for (int i = 0; i < transactions.size(); i++) {
-            Transaction tx = transactions.get(i);
-            String amount = String.format("$%.2f", tx.getTotalAmount());
-            System.out.printf("%-" + transIdWidth + "s | %-" + customerIdWidth + "s | %-" + medicineIdWidth + "s | %-" + 
-                quantityWidth + "d | %-" + amountWidth + "s | %-" + dateWidth + "s\n",
+    private static void printTransactionRows(MyList<Transaction> transactions) {
+        for (Transaction tx : transactions) {
+            String amount = "$" + Money.format(tx.getTotalAmountCents());
+            System.out.printf(TRANSACTION_ROW_FORMAT,
                 tx.getTransactionId(),
                 tx.getCustomerId(),
                 tx.getMedicineId(),
@@ -151,44 +561,48 @@ public class PharmacyManager {
                 amount,
                 tx.getTransactionDate());
         }
+    }
 
-        // Print footer
+    private static void printTransactionFooter() {
         System.out.println(CYAN + BOLD + "=".repeat(80) + RESET);
     }
 
     // Find a medicine by ID
     public Medicine findMedicineById(String id) {
-        return medicines.find(med -> med.getId().equalsIgnoreCase(id));
+        return catalog.findById(id);
     }
 
     // Find a medicine by name (partial match)
-    public MyLinkedList<Medicine> findMedicinesByName(String name) {
-        MyLinkedList<Medicine> results = new MyLinkedList<>();
-        for (int i = 0; i < medicines.size(); i++) {
-            Medicine med = medicines.get(i);
-            if (med.getName().toLowerCase().contains(name.toLowerCase())) {
-                results.add(med);
-            }
-        }
-        return results;
+    public MyList<Medicine> findMedicinesByName(String name) {
+        return catalog.searchByName(name);
+    }
+
+    // Find medicines whose name is within maxDistance edits of the query, closest first
+    public MyList<Medicine> findMedicinesFuzzy(String name, int maxDistance) {
+        return catalog.searchFuzzy(name, maxDistance);
     }
 
     // Add a new medicine
     public void addMedicine(Medicine med) {
-        if (findMedicineById(med.getId()) != null) {
-            System.out.println("Medicine with ID " + med.getId() + " already exists.");
-            return;
+        synchronized (catalogWriteLock) {
+            if (findMedicineById(med.getId()) != null) {
+                System.out.println("Medicine with ID " + med.getId() + " already exists.");
+                return;
+            }
+            stockIndex.put(med, med.getQuantity());
+            trackExpiry(med);
+            markMedicineUpdated(med);
+            publishCatalog(catalog.withAdded(med));
+            persistMedicineChanges();
         }
-        medicines.add(med);
-        CSVUtility.saveMedicines("data/medicines.csv", medicines);
         System.out.println("Medicine added successfully.");
     }
 
     // Add this method to generate sequential medicine ID
     public String generateMedicineId() {
         int highestId = 0;
-        for (int i = 0; i < medicines.size(); i++) {
-            String id = medicines.get(i).getId();
+        for (Medicine med : catalog) {
+            String id = med.getId();
             if (id.startsWith("MED")) {
                 try {
                     int idNum = Integer.parseInt(id.substring(3));
@@ -203,10 +617,15 @@ public class PharmacyManager {
 
     // Remove a medicine by ID
     public void removeMedicineById(String id) {
-        for (int i = 0; i < medicines.size(); i++) {
-            if (medicines.get(i).getId().equalsIgnoreCase(id)) {
-                medicines.remove(i);
-                CSVUtility.saveMedicines("data/medicines.csv", medicines);
+        synchronized (catalogWriteLock) {
+            if (findMedicineById(id) != null) {
+                expiryHeap.remove(indexKey(id));
+                for (Medicine med : catalog.findAllById(id)) {
+                    stockIndex.remove(med);
+                    markMedicineRemoved(med.getId());
+                }
+                publishCatalog(catalog.withRemoved(id));
+                persistMedicineChanges();
                 System.out.println("Medicine removed successfully.");
                 return;
             }
@@ -216,31 +635,40 @@ public class PharmacyManager {
 
     // Update quantity of a medicine
     public void updateMedicineQuantity(String id, int newQuantity) {
-        Medicine med = findMedicineById(id);
-        if (med != null) {
-            System.out.println("\nMedicine Information:");
-            System.out.println(med);
-            System.out.println("Current quantity: " + med.getQuantity());
-            med.setQuantity(newQuantity);
-            CSVUtility.saveMedicines("data/medicines.csv", medicines);
-            System.out.println("Quantity updated to: " + newQuantity);
-        } else {
-            System.out.println("Medicine with ID " + id + " not found.");
+        synchronized (catalogWriteLock) {
+            Medicine med = findMedicineById(id);
+            if (med != null) {
+                System.out.println("\nMedicine Information:");
+                System.out.println(med);
+                System.out.println("Current quantity: " + med.getQuantity());
+                publishCatalog(setMedicineQuantity(catalog, med, newQuantity));
+                persistMedicineChanges();
+                System.out.println("Quantity updated to: " + newQuantity);
+                return;
+            }
         }
+        System.out.println("Medicine with ID " + id + " not found.");
     }
 
     // Update price of a medicine
-    public void updateMedicinePrice(String id, double newPrice) {
-        Medicine med = findMedicineById(id);
-        if (med != null) {
-            double oldPrice = med.getPrice();
-            System.out.println("Current price: $" + oldPrice);
-            med.setPrice(newPrice);
-            CSVUtility.saveMedicines("data/medicines.csv", medicines);
-            System.out.println("Price updated from $" + oldPrice + " to $" + newPrice);
-        } else {
-            System.out.println("Medicine with ID " + id + " not found.");
+    public void updateMedicinePrice(String id, long newPriceCents) {
+        synchronized (catalogWriteLock) {
+            Medicine med = findMedicineById(id);
+            if (med != null) {
+                long oldPriceCents = med.getPriceCents();
+                System.out.println("Current price: $" + Money.format(oldPriceCents));
+                Medicine updated = med.withPriceCents(newPriceCents);
+                stockIndex.remove(med);
+                stockIndex.put(updated, updated.getQuantity());
+                trackExpiry(updated);
+                markMedicineUpdated(updated);
+                publishCatalog(catalog.withReplaced(updated));
+                persistMedicineChanges();
+                System.out.println("Price updated from $" + Money.format(oldPriceCents) + " to $" + Money.format(newPriceCents));
+                return;
+            }
         }
+        System.out.println("Medicine with ID " + id + " not found.");
     }
 
     // Add a new customer
@@ -249,16 +677,27 @@ public class PharmacyManager {
             System.out.println("Customer with ID " + customer.getCustomerId() + " already exists.");
             return;
         }
+        if (existsByPhone(customer.getPhoneNumber())) {
+            System.out.println("Customer with phone " + customer.getPhoneNumber() + " already exists.");
+            return;
+        }
+        if (existsByEmail(customer.getEmail())) {
+            System.out.println("Customer with email " + customer.getEmail() + " already exists.");
+            return;
+        }
         customers.add(customer);
-        CSVUtility.saveCustomers("data/customers.csv", customers);
+        customerIdIndex.put(indexKey(customer.getCustomerId()), customer);
+        customerPhoneIndex.put(customer.getPhoneNumber(), customer);
+        customerEmailIndex.put(indexKey(customer.getEmail()), customer);
+        persistCustomers();
         System.out.println("Customer added successfully.");
     }
 
     // Add method to generate customer ID
     public String generateCustomerId() {
         int highestId = 0;
-        for (int i = 0; i < customers.size(); i++) {
-            String id = customers.get(i).getCustomerId();
+        for (Customer cust : customers) {
+            String id = cust.getCustomerId();
             if (id.startsWith("C")) {
                 try {
                     int idNum = Integer.parseInt(id.substring(1));
@@ -273,14 +712,36 @@ public class PharmacyManager {
 
     // Find a customer by ID
     public Customer findCustomerById(String id) {
-        return customers.find(c -> c.getCustomerId().equalsIgnoreCase(id));
+        if (id == null) return null;
+        return customerIdIndex.get(indexKey(id));
+    }
+
+    // Find the customer registered with a phone number
+    public Customer findCustomerByPhone(String phoneNumber) {
+        if (phoneNumber == null) return null;
+        return customerPhoneIndex.get(phoneNumber);
+    }
+
+    // Find the customer registered with an email (case-insensitive)
+    public Customer findCustomerByEmail(String email) {
+        if (email == null) return null;
+        return customerEmailIndex.get(indexKey(email));
+    }
+
+    // Check if a phone number is already registered
+    public boolean existsByPhone(String phoneNumber) {
+        return findCustomerByPhone(phoneNumber) != null;
+    }
+
+    // Check if an email is already registered
+    public boolean existsByEmail(String email) {
+        return findCustomerByEmail(email) != null;
     }
 
     // Find a customer by name (partial match)
-    public MyLinkedList<Customer> findCustomersByName(String name) {
-        MyLinkedList<Customer> results = new MyLinkedList<>();
-        for (int i = 0; i < customers.size(); i++) {
-            Customer cust = customers.get(i);
+    public MyList<Customer> findCustomersByName(String name) {
+        MyList<Customer> results = new MyArrayList<>();
+        for (Customer cust : customers) {
             if (cust.getName().toLowerCase().contains(name.toLowerCase())) {
                 results.add(cust);
             }
@@ -307,8 +768,7 @@ public class PharmacyManager {
         System.out.println("=".repeat(85) + RESET);
 
         // Print customers
-        for (int i = 0; i < results.size(); i++) {
-            Customer cust = results.get(i);
+        for (Customer cust : results) {
             System.out.printf("%-" + idWidth + "s | %-" + nameWidth + "s | %-" + phoneWidth + "s | %-" + emailWidth + "s\n",
                 cust.getCustomerId(),
                 cust.getName(),
@@ -326,6 +786,17 @@ public class PharmacyManager {
     public void updateCustomerInfo(String id, String name, String phone, String email) {
         Customer customer = findCustomerById(id);
         if (customer != null) {
+            Customer phoneOwner = findCustomerByPhone(phone);
+            if (phoneOwner != null && phoneOwner != customer) {
+                System.out.println("Phone number already registered with customer ID: " + phoneOwner.getCustomerId());
+                return;
+            }
+            Customer emailOwner = findCustomerByEmail(email);
+            if (emailOwner != null && emailOwner != customer) {
+                System.out.println("Email already registered with customer ID: " + emailOwner.getCustomerId());
+                return;
+            }
+
             // Calculate column widths
             int idWidth = 8;
             int nameWidth = 25;
@@ -345,12 +816,20 @@ public class PharmacyManager {
                 customer.getEmail());
             System.out.println("=".repeat(85));
 
-            // Update customer information
+            // Update customer information and move its index entries
+            if (findCustomerByPhone(customer.getPhoneNumber()) == customer) {
+                customerPhoneIndex.remove(customer.getPhoneNumber());
+            }
+            if (findCustomerByEmail(customer.getEmail()) == customer) {
+                customerEmailIndex.remove(indexKey(customer.getEmail()));
+            }
             customer.setName(name);
             customer.setPhoneNumber(phone);
             customer.setEmail(email);
+            customerPhoneIndex.put(phone, customer);
+            customerEmailIndex.put(indexKey(email), customer);
 
-            CSVUtility.saveCustomers("data/customers.csv", customers);
+            persistCustomers();
 
             // Print updated information
             System.out.println(CYAN + BOLD + "\nUpdated Customer Information:" + RESET);
@@ -378,32 +857,42 @@ public class PharmacyManager {
 
         // Create transactions for each item in cart
         MyLinkedList<CartItem> items = cart.getItems();
-        for (int i = 0; i < items.size(); i++) {
-            CartItem item = items.get(i);
-            String transactionId = UUID.randomUUID().toString();
-
-            // Create transaction
-            Transaction transaction = new Transaction(
-                    transactionId,
-                    customer.getCustomerId(),
-                    item.getMedicineId(),
-                    item.getQuantity(),
-                    item.getSubtotal(),
-                    LocalDate.now()
-            );
-
-            transactions.add(transaction);
-
-            // Update medicine quantity in inventory
-            Medicine medicine = findMedicineById(item.getMedicineId());
-            if (medicine != null) {
-                medicine.setQuantity(medicine.getQuantity() - item.getQuantity());
+        synchronized (catalogWriteLock) {
+            // IDs go through the history's dictionaries so every row shares one String per ID;
+            // the dictionaries only change under this lock
+            String customerId = transactions.internCustomerId(customer.getCustomerId());
+            CatalogSnapshot working = catalog;
+            int firstRow = transactions.size();
+            for (CartItem item : items) {
+                TransactionId transactionId = TransactionIdGenerator.next();
+
+                // Create transaction
+                Transaction transaction = new Transaction(
+                        transactionId,
+                        customerId,
+                        transactions.internMedicineId(item.getMedicineId()),
+                        item.getQuantity(),
+                        item.getSubtotalCents(),
+                        LocalDate.now()
+                );
+
+                recordTransaction(transaction);
+
+                // Update medicine quantity in inventory; read from the working version so a
+                // medicine that appears twice in the cart sees the first deduction
+                Medicine medicine = working.findById(item.getMedicineId());
+                if (medicine != null) {
+                    working = setMedicineQuantity(working, medicine, medicine.getQuantity() - item.getQuantity());
+                }
             }
-        }
 
-        // Save updated data
-        CSVUtility.saveTransactions("data/transactions.csv", transactions);
-        CSVUtility.saveMedicines("data/medicines.csv", medicines);
+            // One new catalog version for the whole cart
+            publishCatalog(working);
+
+            // Save updated data; only the new rows and the medicines sold are written
+            persistTransactions(firstRow);
+            persistMedicineChanges();
+        }
 
         // Create and return bill
         Bill bill = new Bill(
@@ -430,79 +919,137 @@ public class PharmacyManager {
             return;
         }
 
-        // Find the medicine
-        Medicine medicine = findMedicineById(medicineId);
-        if (medicine == null) {
-            System.out.println("Medicine not found!");
-            return;
-        }
-        if (medicine.getQuantity() < quantity) {
-            System.out.println("Not enough stock available!");
-            return;
-        }
+        // Stock check and update happen on one catalog version
+        Transaction transaction;
+        synchronized (catalogWriteLock) {
+            // Find the medicine
+            Medicine medicine = findMedicineById(medicineId);
+            if (medicine == null) {
+                System.out.println("Medicine not found!");
+                return;
+            }
+            if (medicine.getQuantity() < quantity) {
+                System.out.println("Not enough stock available!");
+                return;
+            }
 
-        // Calculate total amount
-        double totalAmount = medicine.getPrice() * quantity;
+            // Calculate total amount
+            long totalAmountCents = Money.times(medicine.getPriceCents(), quantity);
 
-        // Generate a unique transaction ID
-        String transactionId = UUID.randomUUID().toString();
+            // Generate a unique transaction ID
+            TransactionId transactionId = TransactionIdGenerator.next();
 
-        // Create the transaction object
-        Transaction transaction = new Transaction(transactionId, customerId, medicineId, quantity, totalAmount, LocalDate.now());
+            // Create the transaction object
+            transaction = new Transaction(transactionId, transactions.internCustomerId(customerId),
+                    transactions.internMedicineId(medicineId), quantity, totalAmountCents, LocalDate.now());
 
-        // Add transaction to the list
-        transactions.add(transaction);
+            // Add transaction to the list
+            int row = transactions.size();
+            recordTransaction(transaction);
 
-        // Update the medicine quantity in the data store
-        medicine.setQuantity(medicine.getQuantity() - quantity);
+            // Update the medicine quantity in the data store
+            publishCatalog(setMedicineQuantity(catalog, medicine, medicine.getQuantity() - quantity));
 
-        // Save data to persist changes
-        CSVUtility.saveTransactions("data/transactions.csv", transactions);
-        CSVUtility.saveMedicines("data/medicines.csv", medicines);
+            // Save data to persist changes
+            persistTransactions(row);
+            persistMedicineChanges();
+        }
 
         System.out.println("Transaction created successfully: " + transaction);
     }
 
+    // The stock and expiry indexes are mutable and only change under catalogWriteLock, so
+    // queries read them under the same lock and print after releasing it
+
+    // Count medicines with quantity < threshold
+    public int countLowStockMedicines(int threshold) {
+        synchronized (catalogWriteLock) {
+            return stockIndex.countBelow(threshold);
+        }
+    }
+
+    // Medicines with quantity < threshold, lowest stock first
+    public MyList<Medicine> findLowStockMedicines(int threshold) {
+        synchronized (catalogWriteLock) {
+            return stockIndex.below(threshold);
+        }
+    }
+
     // Display low stock medicines (quantity < threshold)
     public void displayLowStockMedicines(int threshold) {
         System.out.println("\n===== Low Stock Medicines =====");
         System.out.printf("%-10s %-20s %-10s\n", "ID", "Name", "Quantity");
         System.out.println("---------------------------------------");
 
-        boolean found = false;
-        for (int i = 0; i < medicines.size(); i++) {
-            Medicine med = medicines.get(i);
-            if (med.getQuantity() < threshold) {
-                System.out.printf("%-10s %-20s %-10d\n", med.getId(), med.getName(), med.getQuantity());
-                found = true;
-            }
+        MyList<Medicine> lowStock = findLowStockMedicines(threshold);
+        for (Medicine med : lowStock) {
+            System.out.printf("%-10s %-20s %-10d\n", med.getId(), med.getName(), med.getQuantity());
         }
 
-        if (!found) {
+        if (lowStock.isEmpty()) {
             System.out.println("No medicines below the threshold quantity.");
+        } else {
+            System.out.println("---------------------------------------");
+            System.out.println(lowStock.size() + " medicine(s) below " + threshold + " units.");
+        }
+    }
+
+    // Display the next n in-stock medicines to expire, soonest first
+    public void displayNextToExpire(int n) {
+        MyList<Medicine> results;
+        synchronized (catalogWriteLock) {
+            results = expiryHeap.smallest(n);
+        }
+        printExpiryTable("Next " + n + " Medicines to Expire", results,
+                "No in-stock medicines with a valid expiry date.");
+    }
+
+    // Display in-stock medicines expiring within the given number of days (including already expired)
+    public void displayExpiringWithin(int days) {
+        long lastDay = LocalDate.now().plusDays(days).toEpochDay();
+        MyList<Medicine> results;
+        synchronized (catalogWriteLock) {
+            results = expiryHeap.upTo(lastDay);
+        }
+        printExpiryTable("Medicines Expiring Within " + days + " Days", results,
+                "No in-stock medicines expire within " + days + " days.");
+    }
+
+    private void printExpiryTable(String title, MyList<Medicine> results, String emptyMessage) {
+        System.out.println("\n===== " + title + " =====");
+        System.out.printf("%-10s %-20s %-12s %-10s\n", "ID", "Name", "Expiry", "Quantity");
+        System.out.println("-------------------------------------------------------");
+
+        if (results.isEmpty()) {
+            System.out.println(emptyMessage);
+            return;
+        }
+
+        int today = IsoDate.today();
+        for (Medicine med : results) {
+            String expiry = med.getExpiryEpochDay() < today
+                    ? RED + String.format("%-12s", med.getExpiryDate()) + RESET
+                    : String.format("%-12s", med.getExpiryDate());
+            System.out.printf("%-10s %-20s %s %-10d\n", med.getId(), med.getName(), expiry, med.getQuantity());
         }
     }
 
     // Find customers by phone number
-    public MyLinkedList<Customer> findCustomersByPhone(String phoneNumber) {
-        MyLinkedList<Customer> results = new MyLinkedList<>();
-        for (int i = 0; i < customers.size(); i++) {
-            Customer cust = customers.get(i);
-            if (cust.getPhoneNumber().equals(phoneNumber)) {
-                results.add(cust);
-            }
+    public MyList<Customer> findCustomersByPhone(String phoneNumber) {
+        MyList<Customer> results = new MyArrayList<>();
+        Customer cust = findCustomerByPhone(phoneNumber);
+        if (cust != null) {
+            results.add(cust);
         }
         return results;
     }
 
     // Find customers by email
-    public MyLinkedList<Customer> findCustomersByEmail(String email) {
-        MyLinkedList<Customer> results = new MyLinkedList<>();
-        for (int i = 0; i < customers.size(); i++) {
-            Customer cust = customers.get(i);
-            if (cust.getEmail().equalsIgnoreCase(email)) {
-                results.add(cust);
-            }
+    public MyList<Customer> findCustomersByEmail(String email) {
+        MyList<Customer> results = new MyArrayList<>();
+        Customer cust = findCustomerByEmail(email);
+        if (cust != null) {
+            results.add(cust);
         }
         return results;
     }
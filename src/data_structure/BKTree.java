@@ -0,0 +1,237 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+// Burkhard-Keller tree over normalized string keys using Levenshtein distance.
+// A search with bound d only descends into children whose edge distance lies in
+// [dist - d, dist + d] (triangle inequality), so most of the tree is never visited.
+// The tree is persistent: add and remove copy only the nodes on the path to the key and return
+// a new version, sharing the rest, so readers can keep searching a version while a writer derives
+// the next. Removed items leave their node in place for routing; once removed items outnumber
+// live ones, the tree is rebuilt from the live items.
+public final class BKTree<T> {
+    private static final int MIN_REBUILD_SIZE = 64;
+    private static final Object[] NO_ITEMS = new Object[0];
+    private static final BKTree<?> EMPTY = new BKTree<>(null, 0, 0);
+
+    // Fields are only assigned while a tree is being built by of(); published nodes are never changed
+    private static final class Node {
+        final String key;
+        Object[] items;   // items sharing this key; empty once all are removed
+        Node[] children;  // indexed by distance to this node's key, null if there are none
+
+        Node(String key, Object[] items, Node[] children) {
+            this.key = key;
+            this.items = items;
+            this.children = children;
+        }
+
+        Node child(int dist) {
+            return children != null && dist < children.length ? children[dist] : null;
+        }
+    }
+
+    private final Node root;
+    private final int size;
+    private final int removed;
+
+    private BKTree(Node root, int size, int removed) {
+        this.root = root;
+        this.size = size;
+        this.removed = removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> BKTree<T> empty() {
+        return (BKTree<T>) EMPTY;
+    }
+
+    // Build a tree over every item in one pass, inserting in list order
+    public static <T> BKTree<T> of(MyList<T> items, Function<T, String> keyOf) {
+        Node root = null;
+        for (T item : items) {
+            String key = normalize(keyOf.apply(item));
+            if (root == null) {
+                root = new Node(key, new Object[]{item}, null);
+            } else {
+                insertInPlace(root, key, item);
+            }
+        }
+        return new BKTree<>(root, items.size(), 0);
+    }
+
+    // Only used by of(), before the tree is shared
+    private static void insertInPlace(Node node, String key, Object item) {
+        while (true) {
+            int dist = distance(node.key, key);
+            if (dist == 0) {
+                node.items = withItem(node.items, item);
+                return;
+            }
+            Node child = node.child(dist);
+            if (child == null) {
+                node.children = withChild(node.children, dist, new Node(key, new Object[]{item}, null));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase();
+    }
+
+    // New version with the item added under the key
+    public BKTree<T> add(T item, String key) {
+        String normalized = normalize(key);
+        Node newRoot = root == null
+                ? new Node(normalized, new Object[]{item}, null)
+                : insert(root, normalized, item);
+        return new BKTree<>(newRoot, size + 1, removed);
+    }
+
+    private static Node insert(Node node, String key, Object item) {
+        int dist = distance(node.key, key);
+        if (dist == 0) return new Node(node.key, withItem(node.items, item), node.children);
+        Node child = node.child(dist);
+        Node newChild = child == null ? new Node(key, new Object[]{item}, null) : insert(child, key, item);
+        return new Node(node.key, node.items, withChild(node.children, dist, newChild));
+    }
+
+    // New version without the item (compared with equals), which was added under this key
+    public BKTree<T> remove(T item, String key) {
+        if (root == null) return this;
+        Node newRoot = remove(root, normalize(key), item);
+        if (newRoot == root) return this;
+        BKTree<T> next = new BKTree<>(newRoot, size - 1, removed + 1);
+        if (next.removed > next.size && next.size + next.removed >= MIN_REBUILD_SIZE) return next.rebuild();
+        return next;
+    }
+
+    // Returns the node unchanged if the item is not found
+    private static Node remove(Node node, String key, Object item) {
+        int dist = distance(node.key, key);
+        if (dist == 0) {
+            for (int i = 0; i < node.items.length; i++) {
+                if (node.items[i].equals(item)) {
+                    Object[] items = node.items.length == 1 ? NO_ITEMS : new Object[node.items.length - 1];
+                    System.arraycopy(node.items, 0, items, 0, i);
+                    System.arraycopy(node.items, i + 1, items, i, node.items.length - i - 1);
+                    return new Node(node.key, items, node.children);
+                }
+            }
+            return node;
+        }
+        Node child = node.child(dist);
+        if (child == null) return node;
+        Node newChild = remove(child, key, item);
+        return newChild == child ? node : new Node(node.key, node.items, withChild(node.children, dist, newChild));
+    }
+
+    // Fresh tree over the live items, dropping the nodes that only routed to removed ones
+    @SuppressWarnings("unchecked")
+    private BKTree<T> rebuild() {
+        MyArrayList<T> items = new MyArrayList<>(size);
+        MyArrayList<String> keys = new MyArrayList<>(size);
+        MyQueue<Node> pending = new MyQueue<>();
+        pending.enqueue(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.dequeue();
+            for (Object item : node.items) {
+                items.add((T) item);
+                keys.add(node.key);
+            }
+            if (node.children != null) {
+                for (Node child : node.children) {
+                    if (child != null) pending.enqueue(child);
+                }
+            }
+        }
+        Node newRoot = null;
+        for (int i = 0; i < items.size(); i++) {
+            if (newRoot == null) {
+                newRoot = new Node(keys.get(i), new Object[]{items.get(i)}, null);
+            } else {
+                insertInPlace(newRoot, keys.get(i), items.get(i));
+            }
+        }
+        return new BKTree<>(newRoot, items.size(), 0);
+    }
+
+    private static Object[] withItem(Object[] items, Object item) {
+        Object[] copy = Arrays.copyOf(items, items.length + 1);
+        copy[items.length] = item;
+        return copy;
+    }
+
+    private static Node[] withChild(Node[] children, int dist, Node child) {
+        Node[] copy = children == null
+                ? new Node[dist + 1]
+                : Arrays.copyOf(children, Math.max(children.length, dist + 1));
+        copy[dist] = child;
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Items within maxDistance edits of the query, closest first (ties keep tree order)
+    @SuppressWarnings("unchecked")
+    public MyList<T> search(String query, int maxDistance) {
+        MyArrayList<T> results = new MyArrayList<>();
+        if (root == null || maxDistance < 0) return results;
+        String needle = normalize(query);
+
+        // One bucket per distance gives the ranking without a comparison sort
+        MyArrayList<T>[] byDistance = (MyArrayList<T>[]) new MyArrayList<?>[maxDistance + 1];
+        MyQueue<Node> pending = new MyQueue<>();
+        pending.enqueue(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.dequeue();
+            int dist = distance(node.key, needle);
+            if (dist <= maxDistance && node.items.length > 0) {
+                if (byDistance[dist] == null) byDistance[dist] = new MyArrayList<>();
+                for (Object item : node.items) byDistance[dist].add((T) item);
+            }
+            if (node.children != null) {
+                int low = Math.max(1, dist - maxDistance);
+                int high = Math.min(dist + maxDistance, node.children.length - 1);
+                for (int d = low; d <= high; d++) {
+                    Node child = node.children[d];
+                    if (child != null) pending.enqueue(child);
+                }
+            }
+        }
+        for (MyArrayList<T> bucket : byDistance) {
+            if (bucket != null) results.addAll(bucket);
+        }
+        return results;
+    }
+
+    // Levenshtein distance between two strings using two rolling rows
+    public static int distance(String a, String b) {
+        if (a.equals(b)) return 0;
+        int n = a.length();
+        int m = b.length();
+        if (n == 0) return m;
+        if (m == 0) return n;
+
+        int[] prev = new int[m + 1];
+        int[] curr = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[m];
+    }
+}
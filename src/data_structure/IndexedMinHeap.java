@@ -0,0 +1,214 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Binary min-heap of values ordered by a long priority, addressable by key.
+// A key -> slot map lets update/remove find an entry in O(1) and fix the heap in O(log n).
+public class IndexedMinHeap<K, V> {
+    private Object[] keys;
+    private Object[] values;
+    private long[] priorities;
+    private int size;
+    private final MyHashMap<K, Integer> positions;
+
+    public IndexedMinHeap() {
+        this(16);
+    }
+
+    public IndexedMinHeap(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        priorities = new long[capacity];
+        positions = new MyHashMap<>(capacity);
+    }
+
+    // Insert a new entry or move an existing one to its new priority (decrease- or increase-key)
+    public void insertOrUpdate(K key, long priority, V value) {
+        Integer slot = positions.get(key);
+        if (slot != null) {
+            long old = priorities[slot];
+            priorities[slot] = priority;
+            values[slot] = value;
+            if (priority < old) siftUp(slot);
+            else if (priority > old) siftDown(slot);
+            return;
+        }
+        if (size == keys.length) grow();
+        keys[size] = key;
+        values[size] = value;
+        priorities[size] = priority;
+        positions.put(key, size);
+        siftUp(size++);
+    }
+
+    // Remove an entry by key, returns its value or null if absent
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        Integer slot = positions.remove(key);
+        if (slot == null) return null;
+        V removed = (V) values[slot];
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            siftDown(slot);
+            siftUp(slot);
+        }
+        keys[last] = null;
+        values[last] = null;
+        return removed;
+    }
+
+    public boolean contains(K key) {
+        return positions.containsKey(key);
+    }
+
+    // Smallest value, or null when empty
+    @SuppressWarnings("unchecked")
+    public V peek() {
+        return size == 0 ? null : (V) values[0];
+    }
+
+    public long peekPriority() {
+        if (size == 0) throw new NoSuchElementException("Heap is empty");
+        return priorities[0];
+    }
+
+    // Remove and return the smallest value, or null when empty
+    @SuppressWarnings("unchecked")
+    public V poll() {
+        if (size == 0) return null;
+        return remove((K) keys[0]);
+    }
+
+    // The n smallest values in ascending order, without modifying the heap: O(n log n)
+    public MyList<V> smallest(int n) {
+        return ascending(n, Long.MAX_VALUE);
+    }
+
+    // Every value with priority <= maxPriority in ascending order: O(k log k) for k results
+    public MyList<V> upTo(long maxPriority) {
+        return ascending(Integer.MAX_VALUE, maxPriority);
+    }
+
+    // Best-first walk of the heap tree: a small frontier heap of slots always holds the
+    // children of everything emitted so far, so its minimum is the next value in order
+    @SuppressWarnings("unchecked")
+    private MyList<V> ascending(int limit, long maxPriority) {
+        MyArrayList<V> results = new MyArrayList<>();
+        if (size == 0 || limit <= 0) return results;
+        int[] frontier = new int[16];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        while (frontierSize > 0 && results.size() < limit) {
+            int slot = frontier[0];
+            if (priorities[slot] > maxPriority) break;
+            results.add((V) values[slot]);
+
+            // Pop the frontier minimum
+            frontier[0] = frontier[--frontierSize];
+            frontierSiftDown(frontier, frontierSize, 0);
+
+            // Push its heap children
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                if (frontierSize == frontier.length) frontier = Arrays.copyOf(frontier, frontierSize * 2);
+                frontier[frontierSize] = child;
+                frontierSiftUp(frontier, frontierSize++);
+            }
+        }
+        return results;
+    }
+
+    private void frontierSiftUp(int[] frontier, int i) {
+        int slot = frontier[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priorities[frontier[parent]] <= priorities[slot]) break;
+            frontier[i] = frontier[parent];
+            i = parent;
+        }
+        frontier[i] = slot;
+    }
+
+    private void frontierSiftDown(int[] frontier, int frontierSize, int i) {
+        if (frontierSize == 0) return;
+        int slot = frontier[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= frontierSize) break;
+            if (child + 1 < frontierSize && priorities[frontier[child + 1]] < priorities[frontier[child]]) child++;
+            if (priorities[slot] <= priorities[frontier[child]]) break;
+            frontier[i] = frontier[child];
+            i = child;
+        }
+        frontier[i] = slot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    // Copy the entry at from into slot to, keeping the position map in sync
+    @SuppressWarnings("unchecked")
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        priorities[to] = priorities[from];
+        positions.put((K) keys[to], to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUp(int slot) {
+        Object key = keys[slot];
+        Object value = values[slot];
+        long priority = priorities[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (priorities[parent] <= priority) break;
+            move(parent, slot);
+            slot = parent;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        priorities[slot] = priority;
+        positions.put((K) key, slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDown(int slot) {
+        Object key = keys[slot];
+        Object value = values[slot];
+        long priority = priorities[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) break;
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) child++;
+            if (priority <= priorities[child]) break;
+            move(child, slot);
+            slot = child;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        priorities[slot] = priority;
+        positions.put((K) key, slot);
+    }
+}
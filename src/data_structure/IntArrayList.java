@@ -0,0 +1,74 @@
+package data_structure;
+
+import java.util.Arrays;
+
+// Growable array of primitive ints: add/get/sum never box
+public class IntArrayList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        elements = new int[initialCapacity];
+    }
+
+    // Make sure the list can hold at least minCapacity values without growing
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1));
+            elements = Arrays.copyOf(elements, Math.max(newCapacity, minCapacity));
+        }
+    }
+
+    public void add(int value) {
+        if (size == elements.length) ensureCapacity(size + 1);
+        elements[size++] = value;
+    }
+
+    // Append every value of another list
+    public void addAll(IntArrayList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return elements[index];
+    }
+
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        elements[index] = value;
+    }
+
+    // Summed in a long so large totals don't overflow
+    public long sum() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += elements[i];
+        return total;
+    }
+
+    // Copy of the values, sized exactly
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package data_structure;
+
+import java.util.Arrays;
+
+// Open-addressing int -> int map with no boxing, e.g. epoch day -> units sold.
+// Linear probing over power-of-two tables with backward-shift deletion, like MyHashMap;
+// a parallel used[] array marks occupied slots so every int value is a valid key.
+public class IntIntMap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Callback for forEach, avoids boxing through BiConsumer<Integer, Integer>
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Pre-size the table for the expected number of entries
+    public IntIntMap(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize * 2);
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n) capacity <<= 1;
+        return capacity;
+    }
+
+    // Fibonacci hashing scatters consecutive keys such as dates across the table
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(int key) {
+        int i = hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Slot holding key, claiming an empty one if it is absent
+    private int slotFor(int key) {
+        if ((size + 1) * 2 > keys.length) resize(keys.length << 1);
+        int i = hash(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = 0;
+        size++;
+        return i;
+    }
+
+    public void put(int key, int value) {
+        // Resolve the slot first: slotFor may resize and replace values[]
+        int i = slotFor(key);
+        values[i] = value;
+    }
+
+    // Add delta to the key's value (absent keys start at 0), returns the new value
+    public int addTo(int key, int delta) {
+        int i = slotFor(key);
+        values[i] += delta;
+        return values[i];
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    // Remove a key, returns true if it was present
+    public boolean remove(int key) {
+        int i = indexOf(key);
+        if (i < 0) return false;
+
+        // Backward-shift deletion, as in MyHashMap
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (used[j]) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    // Visit every entry in table order
+    public void forEach(IntIntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) action.accept(keys[i], values[i]);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[newCapacity];
+        values = new int[newCapacity];
+        used = new boolean[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int j = hash(oldKeys[i]) & mask;
+                while (used[j]) j = (j + 1) & mask;
+                used[j] = true;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+}
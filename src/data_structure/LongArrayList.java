@@ -0,0 +1,73 @@
+package data_structure;
+
+import java.util.Arrays;
+
+// Growable array of primitive longs: add/get/sum never box
+public class LongArrayList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private long[] elements;
+    private int size;
+
+    public LongArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongArrayList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        elements = new long[initialCapacity];
+    }
+
+    // Make sure the list can hold at least minCapacity values without growing
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1));
+            elements = Arrays.copyOf(elements, Math.max(newCapacity, minCapacity));
+        }
+    }
+
+    public void add(long value) {
+        if (size == elements.length) ensureCapacity(size + 1);
+        elements[size++] = value;
+    }
+
+    // Append every value of another list
+    public void addAll(LongArrayList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return elements[index];
+    }
+
+    public void set(int index, long value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        elements[index] = value;
+    }
+
+    public long sum() {
+        long total = 0;
+        for (int i = 0; i < size; i++) total += elements[i];
+        return total;
+    }
+
+    // Copy of the values, sized exactly
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
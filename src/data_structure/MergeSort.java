@@ -1,38 +1,145 @@
 package data_structure;
 
-import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class MergeSort {
-    // Sort an array of integers using Merge Sort
-    public static void mergeSort(int[] array) {
-        if (array == null || array.length < 2) return;
+    // Runs this short are sorted with insertion sort instead of being split further
+    private static final int INSERTION_SORT_CUTOFF = 32;
+    // Arrays at least this long are sorted on the common ForkJoinPool
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    // Parallel tasks stop splitting below this size and sort sequentially
+    private static final int PARALLEL_GRAIN = 1 << 12;
 
-        int mid = array.length / 2;
-        int[] left = Arrays.copyOfRange(array, 0, mid);
-        int[] right = Arrays.copyOfRange(array, mid, array.length);
+    private MergeSort() {
+    }
+
+    // Stable sort of the whole array
+    public static <T> void sort(T[] array, Comparator<? super T> comparator) {
+        if (array == null) return;
+        sort(array, 0, array.length, comparator);
+    }
+
+    // Stable sort of array[from, to); large ranges are sorted in parallel
+    public static <T> void sort(T[] array, int from, int to, Comparator<? super T> comparator) {
+        if (array == null || to - from < 2) return;
+
+        // Natural-run detection: already sorted input is left alone, strictly descending input is reversed
+        int runEnd = naturalRunEnd(array, from, to, comparator);
+        if (runEnd == to) return;
+        if (runEnd < 0) {
+            reverse(array, from, to);
+            return;
+        }
+
+        // Single scratch buffer shared by every merge; tasks only touch their own range of it
+        Object[] scratch = new Object[to - from];
+        if (to - from >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new SortTask<>(array, scratch, from, to, from, comparator));
+        } else {
+            mergeSort(array, scratch, from, to, from, comparator);
+        }
+    }
 
-        mergeSort(left);
-        mergeSort(right);
-        merge(array, left, right);
+    // Returns to if [from, to) is ascending, -1 if it is strictly descending, otherwise any other index
+    private static <T> int naturalRunEnd(T[] array, int from, int to, Comparator<? super T> comparator) {
+        int i = from + 1;
+        if (comparator.compare(array[from], array[i]) > 0) {
+            while (i < to && comparator.compare(array[i - 1], array[i]) > 0) i++;
+            return i == to ? -1 : i;
+        }
+        while (i < to && comparator.compare(array[i - 1], array[i]) <= 0) i++;
+        return i;
     }
 
-    private static void merge(int[] array, int[] left, int[] right) {
-        int i = 0, j = 0, k = 0;
+    private static void reverse(Object[] array, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            Object tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
 
-        while (i < left.length && j < right.length) {
-            if (left[i] <= right[j]) {
-                array[k++] = left[i++];
+    // Sort array[from, to) using scratch[from - offset, to - offset)
+    private static <T> void mergeSort(T[] array, Object[] scratch, int from, int to, int offset,
+                                      Comparator<? super T> comparator) {
+        if (to - from <= INSERTION_SORT_CUTOFF) {
+            insertionSort(array, from, to, comparator);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(array, scratch, from, mid, offset, comparator);
+        mergeSort(array, scratch, mid, to, offset, comparator);
+        merge(array, scratch, from, mid, to, offset, comparator);
+    }
+
+    private static <T> void insertionSort(T[] array, int from, int to, Comparator<? super T> comparator) {
+        for (int i = from + 1; i < to; i++) {
+            T value = array[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(array[j], value) > 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void merge(T[] array, Object[] scratch, int from, int mid, int to, int offset,
+                                  Comparator<? super T> comparator) {
+        // Halves already in order need no merge
+        if (comparator.compare(array[mid - 1], array[mid]) <= 0) return;
+
+        // Copy only the left half out; the right half is merged in place from the array
+        int leftLength = mid - from;
+        System.arraycopy(array, from, scratch, from - offset, leftLength);
+        int i = from - offset, leftEnd = i + leftLength;
+        int j = mid, k = from;
+
+        while (i < leftEnd && j < to) {
+            if (comparator.compare((T) scratch[i], array[j]) <= 0) {
+                array[k++] = (T) scratch[i++];
             } else {
-                array[k++] = right[j++];
+                array[k++] = array[j++];
             }
         }
 
-        while (i < left.length) {
-            array[k++] = left[i++];
+        while (i < leftEnd) {
+            array[k++] = (T) scratch[i++];
         }
+    }
+
+    private static class SortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] array;
+        private final Object[] scratch;
+        private final int from;
+        private final int to;
+        private final int offset;
+        private final Comparator<? super T> comparator;
 
-        while (j < right.length) {
-            array[k++] = right[j++];
+        SortTask(T[] array, Object[] scratch, int from, int to, int offset, Comparator<? super T> comparator) {
+            this.array = array;
+            this.scratch = scratch;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                mergeSort(array, scratch, from, to, offset, comparator);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask<>(array, scratch, from, mid, offset, comparator),
+                    new SortTask<>(array, scratch, mid, to, offset, comparator));
+            merge(array, scratch, from, mid, to, offset, comparator);
         }
     }
 }
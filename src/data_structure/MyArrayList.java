@@ -0,0 +1,180 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+public class MyArrayList<T> implements MyList<T> {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final Object[] EMPTY = {};
+
+    private Object[] elements;
+    private int size;
+    // Bumped on every structural change so iterators can fail fast
+    private int modCount;
+
+    public MyArrayList() {
+        elements = EMPTY;
+        size = 0;
+    }
+
+    // Pre-size the backing array when the element count is known up front
+    public MyArrayList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        elements = initialCapacity == 0 ? EMPTY : new Object[initialCapacity];
+        size = 0;
+    }
+
+    // Make sure the list can hold at least minCapacity elements without growing
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1));
+            elements = Arrays.copyOf(elements, Math.max(newCapacity, minCapacity));
+        }
+    }
+
+    // Add to end, amortized O(1)
+    @Override
+    public void add(T data) {
+        if (size == elements.length) ensureCapacity(size + 1);
+        elements[size++] = data;
+        modCount++;
+    }
+
+    // Append every element of another list, growing at most once
+    public void addAll(MyList<? extends T> other) {
+        ensureCapacity(size + other.size());
+        for (T data : other) {
+            elements[size++] = data;
+        }
+        modCount++;
+    }
+
+    // Get data at index in O(1)
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return (T) elements[index];
+    }
+
+    // Replace data at index
+    public void set(int index, T data) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        elements[index] = data;
+    }
+
+    // Remove element by index, shifting the tail left
+    @Override
+    public void remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        int moved = size - index - 1;
+        if (moved > 0) System.arraycopy(elements, index + 1, elements, index, moved);
+        elements[--size] = null;
+        modCount++;
+    }
+
+    // Single compacting pass instead of one arraycopy per removed element
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<T> condition) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            T data = (T) elements[i];
+            if (!condition.test(data)) {
+                elements[kept++] = data;
+            }
+        }
+        if (kept == size) return false;
+        Arrays.fill(elements, kept, size, null);
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    // Stable in-place sort of the backing array
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super T> comparator) {
+        MergeSort.sort((T[]) elements, 0, size, comparator);
+        modCount++;
+    }
+
+    // Get size
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T find(Predicate<T> condition) {
+        for (int i = 0; i < size; i++) {
+            T data = (T) elements[i];
+            if (condition.test(data)) return data;
+        }
+        return null;
+    }
+
+    // Display all elements
+    @Override
+    public void display() {
+        for (int i = 0; i < size; i++) {
+            System.out.println(elements[i].toString());
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<T> {
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            checkForComodification();
+            if (cursor >= size) throw new NoSuchElementException();
+            lastReturned = cursor++;
+            return (T) elements[lastReturned];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+}
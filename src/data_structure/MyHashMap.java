@@ -0,0 +1,146 @@
+package data_structure;
+
+import java.util.Arrays;
+
+// Open-addressing hash map with linear probing over power-of-two tables.
+// Deletion shifts later entries back instead of leaving tombstones, so probe chains stay short.
+public class MyHashMap<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public MyHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Pre-size the table for the expected number of entries
+    public MyHashMap(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize * 2);
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n) capacity <<= 1;
+        return capacity;
+    }
+
+    // Short strings such as trigrams or "MED001".."MED999" have near-consecutive hashes that
+    // form long linear-probe runs; Fibonacci mixing scatters them, as in ObjectIntMap
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        int i = hash(key) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Insert or replace, returns the previous value or null
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        // Keep the load factor at or below 1/2
+        if ((size + 1) * 2 > keys.length) resize(keys.length << 1);
+        int i = hash(key) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        return null;
+    }
+
+    // Insert only when the key is not already present, returns the existing value or null
+    public V putIfAbsent(K key, V value) {
+        V existing = get(key);
+        if (existing != null) return existing;
+        put(key, value);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) return null;
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public boolean containsKey(Object key) {
+        return key != null && indexOf(key) >= 0;
+    }
+
+    // Remove a key, returns the removed value or null
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null) return null;
+        int i = indexOf(key);
+        if (i < 0) return null;
+        V old = (V) values[i];
+
+        // Backward-shift deletion: move later entries of the probe chain into the gap
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != null) {
+            int home = hash(keys[j]) & mask;
+            // Entry at j may fill the gap only if its home slot is not cyclically in (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = null;
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int j = hash(oldKeys[i]) & mask;
+                while (keys[j] != null) j = (j + 1) & mask;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
@@ -1,6 +1,12 @@
 package data_structure;
 
-public class MyLinkedList<T> {
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+public class MyLinkedList<T> implements MyList<T> {
     private class Node {
         T data;
         Node next;
@@ -12,55 +18,144 @@ public class MyLinkedList<T> {
     }
 
     private Node head;
+    private Node tail;
     private int size;
+    // Bumped on every structural change so iterators can fail fast
+    private int modCount;
 
     public MyLinkedList() {
         head = null;
+        tail = null;
         size = 0;
     }
 
-    // Add to end
+    // Add to end in O(1) using the tail pointer
+    @Override
     public void add(T data) {
         Node newNode = new Node(data);
         if (head == null) {
             head = newNode;
         } else {
-            Node current = head;
-            while (current.next != null) {
-                current = current.next;
-            }
-            current.next = newNode;
+            tail.next = newNode;
         }
+        tail = newNode;
         size++;
+        modCount++;
     }
 
     // Get data at index
+    @Override
     public T get(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        if (index == size - 1) return tail.data;
         Node current = head;
         for (int i = 0; i < index; i++) current = current.next;
         return current.data;
     }
 
     // Remove element by index
+    @Override
     public void remove(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
         if (index == 0) {
-            head = head.next;
+            unlink(null, head);
         } else {
             Node prev = head;
             for (int i = 0; i < index - 1; i++) prev = prev.next;
-            prev.next = prev.next.next;
+            unlink(prev, prev.next);
+        }
+    }
+
+    // Remove every element matching the condition in a single pass
+    @Override
+    public boolean removeIf(Predicate<T> condition) {
+        boolean removed = false;
+        Node prev = null;
+        Node current = head;
+        while (current != null) {
+            Node next = current.next;
+            if (condition.test(current.data)) {
+                unlink(prev, current);
+                removed = true;
+            } else {
+                prev = current;
+            }
+            current = next;
+        }
+        return removed;
+    }
+
+    // Unlink node from the list given its predecessor (null when node is head)
+    private void unlink(Node prev, Node node) {
+        if (prev == null) {
+            head = node.next;
+        } else {
+            prev.next = node.next;
+        }
+        if (node == tail) {
+            tail = prev;
         }
         size--;
+        modCount++;
+    }
+
+    // Stable bottom-up merge sort that relinks nodes in place: O(n log n) time, O(1) extra space
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        if (size < 2) return;
+        Node dummy = new Node(null);
+        dummy.next = head;
+        Node tailOfMerged = dummy;
+        for (int width = 1; width < size; width <<= 1) {
+            tailOfMerged = dummy;
+            Node current = dummy.next;
+            while (current != null) {
+                Node left = current;
+                Node right = split(left, width);
+                current = split(right, width);
+                tailOfMerged = mergeRuns(left, right, tailOfMerged, comparator);
+            }
+        }
+        head = dummy.next;
+        tail = tailOfMerged;
+        modCount++;
+    }
+
+    // Cut the run of up to width nodes starting at start, returning the node after it
+    private Node split(Node start, int width) {
+        for (int i = 1; start != null && i < width; i++) start = start.next;
+        if (start == null) return null;
+        Node rest = start.next;
+        start.next = null;
+        return rest;
+    }
+
+    // Merge two sorted runs after the given node, returning the last node of the merged run
+    private Node mergeRuns(Node left, Node right, Node before, Comparator<? super T> comparator) {
+        Node current = before;
+        while (left != null && right != null) {
+            if (comparator.compare(left.data, right.data) <= 0) {
+                current.next = left;
+                left = left.next;
+            } else {
+                current.next = right;
+                right = right.next;
+            }
+            current = current.next;
+        }
+        current.next = left != null ? left : right;
+        while (current.next != null) current = current.next;
+        return current;
     }
 
     // Get size
+    @Override
     public int size() {
         return size;
     }
 
     // Display all elements
+    @Override
     public void display() {
         Node current = head;
         while (current != null) {
@@ -68,16 +163,22 @@ public class MyLinkedList<T> {
             current = current.next;
         }
     }
+
+    @Override
     public void clear() {
         head = null;
+        tail = null;
         size = 0;
+        modCount++;
     }
 
+    @Override
     public boolean isEmpty() {
         return size == 0;
     }
 
-    public T find(java.util.function.Predicate<T> condition) {
+    @Override
+    public T find(Predicate<T> condition) {
         Node current = head;
         while (current != null) {
             if (condition.test(current.data)) return current.data;
@@ -85,4 +186,49 @@ public class MyLinkedList<T> {
         }
         return null;
     }
+
+    // Cursor-based iterator: each step is O(1), so a full scan is O(n)
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<T> {
+        private Node next = head;
+        private Node lastReturned;
+        private Node beforeLastReturned;
+        private Node prev;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (next == null) throw new NoSuchElementException();
+            beforeLastReturned = prev;
+            lastReturned = next;
+            prev = next;
+            next = next.next;
+            return lastReturned.data;
+        }
+
+        // Remove the element last returned by next() without rescanning the list
+        @Override
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            checkForComodification();
+            unlink(beforeLastReturned, lastReturned);
+            prev = beforeLastReturned;
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
 }
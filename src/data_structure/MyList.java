@@ -0,0 +1,35 @@
+package data_structure;
+
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+// Common list operations shared by MyArrayList and MyLinkedList
+public interface MyList<T> extends Iterable<T> {
+    // Add to end
+    void add(T data);
+
+    // Get data at index
+    T get(int index);
+
+    // Remove element by index
+    void remove(int index);
+
+    // Remove every element matching the condition, returns true if any were removed
+    boolean removeIf(Predicate<T> condition);
+
+    // Stable in-place sort
+    void sort(Comparator<? super T> comparator);
+
+    // Get size
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    // Return the first element matching the condition, or null
+    T find(Predicate<T> condition);
+
+    // Display all elements
+    void display();
+}
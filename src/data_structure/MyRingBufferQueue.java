@@ -0,0 +1,210 @@
+package data_structure;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded multi-producer/multi-consumer queue on a power-of-two ring buffer.
+// Each slot carries a sequence number telling producers and consumers whose turn it is,
+// so offer/poll are a single CAS on the tail/head sequence with no locks.
+// Blocking put()/take() sleep on a monitor and are woken by the next publish or freed slot;
+// while nobody waits, publishing only reads a volatile counter and never touches the monitor.
+public class MyRingBufferQueue<T> {
+    // What put() and offer() do when the ring is full
+    public enum FullPolicy {
+        BLOCK,  // put() waits until a consumer frees a slot, offer() returns false
+        REJECT, // return false immediately
+        SPILL   // queue the element in an unbounded overflow queue
+    }
+
+    // AtomicLong padded out to its own cache line so head and tail don't false-share
+    @SuppressWarnings("unused")
+    private static final class PaddedSequence extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final PaddedSequence head = new PaddedSequence();
+    private final PaddedSequence tail = new PaddedSequence();
+    private final FullPolicy fullPolicy;
+    // Only used by FullPolicy.SPILL; drained once the ring itself is empty so order is kept.
+    // Guarded by its own monitor: spilling is the rare overflow path, so a lock there is cheap
+    private final MyQueue<T> spill = new MyQueue<>();
+    // Spilled elements not yet taken; read without the lock so an empty spill costs nothing
+    private volatile int spilled;
+    // Threads sleeping in put() or take(); the counts are only changed while holding the monitor
+    private final Object waiters = new Object();
+    private volatile int waitingProducers;
+    private volatile int waitingConsumers;
+
+    public MyRingBufferQueue(int capacity, FullPolicy fullPolicy) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        buffer = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+        mask = size - 1;
+        this.fullPolicy = fullPolicy;
+    }
+
+    // Add without waiting. Returns false if the ring is full, except under SPILL, where the
+    // element queues behind anything already spilled so FIFO order is kept
+    public boolean offer(T value) {
+        if (value == null) throw new IllegalArgumentException("Queue does not accept null");
+        if (fullPolicy != FullPolicy.SPILL) return offerToRing(value);
+        // Once anything has spilled, new elements queue behind it
+        if (spilled == 0 && offerToRing(value)) return true;
+        spill(value);
+        return true;
+    }
+
+    private boolean offerToRing(T value) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[index] = value;
+                    // Publishing the sequence makes the slot visible to consumers
+                    sequences.set(index, pos + 1);
+                    if (waitingConsumers > 0) wakeWaiters();
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // Add according to the configured FullPolicy, returns false if REJECT dropped the element
+    // or a BLOCK caller was interrupted while waiting (its interrupt status is kept)
+    public boolean put(T value) {
+        if (offer(value)) return true;
+        if (fullPolicy != FullPolicy.BLOCK) return false;
+        synchronized (waiters) {
+            waitingProducers++;
+            try {
+                // Retried after registering, so a poll that frees the slot from now on wakes us
+                while (!offerToRing(value)) waiters.wait();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waitingProducers--;
+            }
+        }
+    }
+
+    // Remove and return the front element, or null if nothing is queued
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T value = (T) buffer[index];
+                    buffer[index] = null;
+                    // Hand the slot to the producer one lap ahead
+                    sequences.set(index, pos + mask + 1);
+                    if (waitingProducers > 0) wakeWaiters();
+                    return value;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                if (tail.get() != pos) {
+                    // A producer that claimed this slot is still writing it; its publish wakes takers
+                    if (head.get() == pos) return null;
+                    pos = head.get();
+                    continue;
+                }
+                // The ring is empty, so the oldest element left is the first spilled one
+                if (spilled == 0) return null;
+                synchronized (spill) {
+                    // Checked again under the lock: anything a producer gets into the ring from now
+                    // on was put after all of that producer's spilled elements
+                    if (tail.get() == pos) {
+                        if (spill.isEmpty()) return null;
+                        T value = spill.dequeue();
+                        spilled = spill.size();
+                        return value;
+                    }
+                }
+                pos = head.get();
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    private void spill(T value) {
+        synchronized (spill) {
+            spill.enqueue(value);
+            spilled = spill.size();
+        }
+        if (waitingConsumers > 0) wakeWaiters();
+    }
+
+    // Remove and return the front element, waiting until one is available
+    public T take() throws InterruptedException {
+        T value = poll();
+        if (value != null) return value;
+        synchronized (waiters) {
+            waitingConsumers++;
+            try {
+                // Retried after registering, so a publish from now on wakes us
+                while ((value = poll()) == null) waiters.wait();
+                return value;
+            } finally {
+                waitingConsumers--;
+            }
+        }
+    }
+
+    // Called after a publish or a freed slot; the waiter count is read after the sequence is
+    // written and a waiter writes its count before retrying, so one of the two always sees the other
+    private void wakeWaiters() {
+        synchronized (waiters) {
+            waiters.notifyAll();
+        }
+    }
+
+    // Move up to maxElements queued elements into sink, returns how many were moved
+    public int drainTo(MyList<? super T> sink, int maxElements) {
+        int drained = 0;
+        T value;
+        while (drained < maxElements && (value = poll()) != null) {
+            sink.add(value);
+            drained++;
+        }
+        return drained;
+    }
+
+    // Number of queued elements, including spilled ones (a snapshot under concurrency)
+    public int size() {
+        long queued = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(queued, buffer.length)) + spilled;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public FullPolicy getFullPolicy() {
+        return fullPolicy;
+    }
+}
@@ -0,0 +1,102 @@
+package data_structure;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Skip list of values ordered by a long key, for range queries.
+// Equal keys keep insertion order (each insert lands after existing equal keys), so the
+// effective ordering is (key, insertion sequence).
+// Writers are serialized on a lock; readers never lock. A node is fully built before it is
+// published bottom-up through atomic next pointers, so a concurrent reader always sees a
+// consistent level-0 list and at worst a slightly shorter express lane.
+public class MySkipList<T> {
+    private static final int MAX_LEVEL = 16;
+
+    private static final class Node<T> {
+        final long key;
+        final T value;
+        final AtomicReferenceArray<Node<T>> next;
+
+        Node(long key, T value, int levels) {
+            this.key = key;
+            this.value = value;
+            this.next = new AtomicReferenceArray<>(levels);
+        }
+    }
+
+    private final Node<T> head = new Node<>(Long.MIN_VALUE, null, MAX_LEVEL);
+    private final Object writeLock = new Object();
+    private volatile int level = 1;
+    private volatile int size;
+
+    // Pick a level with probability 1/4 per extra level
+    private static int randomLevel() {
+        int lvl = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (lvl < MAX_LEVEL && random.nextInt(4) == 0) lvl++;
+        return lvl;
+    }
+
+    public void insert(long key, T value) {
+        synchronized (writeLock) {
+            @SuppressWarnings("unchecked")
+            Node<T>[] update = (Node<T>[]) new Node<?>[MAX_LEVEL];
+            Node<T> current = head;
+            for (int i = level - 1; i >= 0; i--) {
+                Node<T> next;
+                // <= keeps equal keys in insertion order
+                while ((next = current.next.get(i)) != null && next.key <= key) current = next;
+                update[i] = current;
+            }
+
+            int nodeLevel = randomLevel();
+            if (nodeLevel > level) {
+                for (int i = level; i < nodeLevel; i++) update[i] = head;
+            }
+            Node<T> node = new Node<>(key, value, nodeLevel);
+            for (int i = 0; i < nodeLevel; i++) node.next.set(i, update[i].next.get(i));
+            // Publish bottom-up so level 0 is always complete
+            for (int i = 0; i < nodeLevel; i++) update[i].next.set(i, node);
+            if (nodeLevel > level) level = nodeLevel;
+            size++;
+        }
+    }
+
+    // Values with fromKey <= key <= toKey, in key order: O(log n + k)
+    public MyList<T> range(long fromKey, long toKey) {
+        MyArrayList<T> results = new MyArrayList<>();
+        if (fromKey > toKey) return results;
+        Node<T> current = head;
+        for (int i = level - 1; i >= 0; i--) {
+            Node<T> next;
+            while ((next = current.next.get(i)) != null && next.key < fromKey) current = next;
+        }
+        Node<T> node = current.next.get(0);
+        while (node != null && node.key <= toKey) {
+            results.add(node.value);
+            node = node.next.get(0);
+        }
+        return results;
+    }
+
+    // Values with key >= fromKey, in key order
+    public MyList<T> from(long fromKey) {
+        return range(fromKey, Long.MAX_VALUE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            for (int i = 0; i < MAX_LEVEL; i++) head.next.set(i, null);
+            level = 1;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+// Trigram inverted index for case-insensitive substring search.
+// Every added item gets a slot number; each trigram of its lowercased key maps to an ascending
+// posting list of slots. A query intersects the postings of its own trigrams and then verifies
+// the candidates with a real contains() check, so results are exact.
+// The index is persistent: add and remove return a new version and leave this one untouched,
+// sharing every slot, posting list and map node they do not change, so readers can keep using
+// a version while a writer derives the next. Removing an item only empties its slot (the
+// verification pass skips empty slots); once empty slots outnumber live ones, the live items
+// are renumbered in order, so memory and scans follow the live size rather than the total adds.
+public final class NGramIndex<T> {
+    private static final int N = 3;
+    private static final int MIN_COMPACT_SLOTS = 64;
+    private static final NGramIndex<?> EMPTY = new NGramIndex<>(PersistentVector.empty(),
+            PersistentVector.empty(), PersistentHashMap.empty(), PersistentHashMap.empty(), 0);
+
+    private final PersistentVector<T> items;      // by slot, null once removed
+    private final PersistentVector<String> keys;  // normalized keys by slot, null once removed
+    private final PersistentHashMap<String, PersistentIntVector> postings;
+    private final PersistentHashMap<T, Integer> slotOf;
+    private final int liveCount;
+
+    private NGramIndex(PersistentVector<T> items, PersistentVector<String> keys,
+                       PersistentHashMap<String, PersistentIntVector> postings,
+                       PersistentHashMap<T, Integer> slotOf, int liveCount) {
+        this.items = items;
+        this.keys = keys;
+        this.postings = postings;
+        this.slotOf = slotOf;
+        this.liveCount = liveCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> NGramIndex<T> empty() {
+        return (NGramIndex<T>) EMPTY;
+    }
+
+    // Index every item under its key in one pass, in list order (repeated items are indexed once)
+    public static <T> NGramIndex<T> of(MyList<T> source, Function<T, String> keyOf) {
+        MyArrayList<T> items = new MyArrayList<>(source.size());
+        MyArrayList<String> keys = new MyArrayList<>(source.size());
+        PersistentHashMap<T, Integer> slotOf = PersistentHashMap.empty();
+        for (T item : source) {
+            if (slotOf.containsKey(item)) continue;
+            slotOf = slotOf.put(item, items.size());
+            items.add(item);
+            keys.add(normalize(keyOf.apply(item)));
+        }
+        return build(items, keys, slotOf);
+    }
+
+    // Index distinct items under already normalized keys; slot i holds items[i]
+    private static <T> NGramIndex<T> build(MyArrayList<T> items, MyArrayList<String> keys,
+                                           PersistentHashMap<T, Integer> slotOf) {
+        // Posting lists are collected in plain arrays, then frozen once
+        MyHashMap<String, IntArrayList> lists = new MyHashMap<>();
+        MyArrayList<String> grams = new MyArrayList<>();
+        for (int slot = 0; slot < keys.size(); slot++) {
+            String key = keys.get(slot);
+            for (int i = 0; i + N <= key.length(); i++) {
+                String gram = key.substring(i, i + N);
+                IntArrayList list = lists.get(gram);
+                if (list == null) {
+                    list = new IntArrayList(4);
+                    lists.put(gram, list);
+                    grams.add(gram);
+                }
+                // A key that repeats a trigram only needs one posting
+                if (list.isEmpty() || list.get(list.size() - 1) != slot) list.add(slot);
+            }
+        }
+        PersistentHashMap<String, PersistentIntVector> postings = PersistentHashMap.empty();
+        for (String gram : grams) {
+            IntArrayList list = lists.get(gram);
+            postings = postings.put(gram, PersistentIntVector.of(list.toArray(), list.size()));
+        }
+        return new NGramIndex<>(PersistentVector.of(items), PersistentVector.of(keys), postings, slotOf, items.size());
+    }
+
+    private static String normalize(String key) {
+        return key.toLowerCase();
+    }
+
+    // New version with the item indexed under the key; this version if the item is already indexed
+    public NGramIndex<T> add(T item, String key) {
+        if (slotOf.containsKey(item)) return this;
+        String normalized = normalize(key);
+        int slot = items.size();
+        PersistentHashMap<String, PersistentIntVector> newPostings = postings;
+        for (int i = 0; i + N <= normalized.length(); i++) {
+            String gram = normalized.substring(i, i + N);
+            PersistentIntVector list = newPostings.get(gram);
+            if (list == null) list = PersistentIntVector.empty();
+            // Slots are handed out in increasing order, so appending keeps the list sorted
+            if (list.size() == 0 || list.get(list.size() - 1) != slot) {
+                newPostings = newPostings.put(gram, list.append(slot));
+            }
+        }
+        return new NGramIndex<>(items.append(item), keys.append(normalized), newPostings,
+                slotOf.put(item, slot), liveCount + 1);
+    }
+
+    // New version without the item; its slot is left empty until the next compaction
+    public NGramIndex<T> remove(T item) {
+        Integer slot = slotOf.get(item);
+        if (slot == null) return this;
+        NGramIndex<T> next = new NGramIndex<>(items.set(slot, null), keys.set(slot, null), postings,
+                slotOf.remove(item), liveCount - 1);
+        int emptySlots = next.items.size() - next.liveCount;
+        if (emptySlots > next.liveCount && next.items.size() >= MIN_COMPACT_SLOTS) return next.compact();
+        return next;
+    }
+
+    // Re-index the live items into consecutive slots, keeping their order
+    private NGramIndex<T> compact() {
+        MyArrayList<T> liveItems = new MyArrayList<>(liveCount);
+        MyArrayList<String> liveKeys = new MyArrayList<>(liveCount);
+        PersistentHashMap<T, Integer> liveSlots = PersistentHashMap.empty();
+        for (int slot = 0; slot < items.size(); slot++) {
+            String key = keys.get(slot);
+            if (key == null) continue;
+            liveSlots = liveSlots.put(items.get(slot), liveItems.size());
+            liveItems.add(items.get(slot));
+            liveKeys.add(key);
+        }
+        return build(liveItems, liveKeys, liveSlots);
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    // Return every item whose key contains the query (case-insensitive), in insertion order
+    public MyList<T> search(String query) {
+        String needle = normalize(query);
+        MyArrayList<T> results = new MyArrayList<>();
+
+        // Queries shorter than one trigram cannot use the postings; check every live key
+        if (needle.length() < N) {
+            int slot = 0;
+            for (String key : keys) {
+                if (key != null && key.contains(needle)) results.add(items.get(slot));
+                slot++;
+            }
+            return results;
+        }
+
+        int gramCount = needle.length() - N + 1;
+        PersistentIntVector[] lists = new PersistentIntVector[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            PersistentIntVector list = postings.get(needle.substring(i, i + N));
+            if (list == null) return results;
+            lists[i] = list;
+        }
+        // Intersect starting from the shortest posting list
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+        int[] candidates = lists[0].toArray();
+        int count = candidates.length;
+        for (int l = 1; l < lists.length && count > 0; l++) {
+            count = intersect(candidates, count, lists[l]);
+        }
+
+        // Verification pass: trigrams can all match while the substring does not, and the
+        // postings still list removed slots until the next compaction
+        for (int i = 0; i < count; i++) {
+            int slot = candidates[i];
+            String key = keys.get(slot);
+            if (key != null && key.contains(needle)) results.add(items.get(slot));
+        }
+        return results;
+    }
+
+    // Keep only candidates also present in the list, returns the new candidate count
+    private static int intersect(int[] candidates, int count, PersistentIntVector list) {
+        int kept = 0;
+        int j = 0;
+        int size = list.size();
+        for (int i = 0; i < count && j < size; i++) {
+            int slot = candidates[i];
+            int value = list.get(j);
+            while (value < slot && ++j < size) value = list.get(j);
+            if (j < size && value == slot) candidates[kept++] = slot;
+        }
+        return kept;
+    }
+}
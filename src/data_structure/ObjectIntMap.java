@@ -0,0 +1,147 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+// MyHashMap specialised to int values: counters and totals are stored unboxed.
+// Same layout as MyHashMap (linear probing, power-of-two table, backward-shift deletion).
+public class ObjectIntMap<K> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public ObjectIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Pre-size the table for the expected number of entries
+    public ObjectIntMap(int expectedSize) {
+        int capacity = tableSizeFor(expectedSize * 2);
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < n) capacity <<= 1;
+        return capacity;
+    }
+
+    // Short IDs such as "C101".."C499" have near-consecutive String hashes; Fibonacci mixing
+    // keeps them from forming long linear-probe runs
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        int i = hash(key) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Slot holding key, claiming an empty one if it is absent
+    private int slotFor(K key) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        if ((size + 1) * 2 > keys.length) resize(keys.length << 1);
+        int i = hash(key) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) return i;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = 0;
+        size++;
+        return i;
+    }
+
+    public void put(K key, int value) {
+        // Resolve the slot first: slotFor may resize and replace values[]
+        int i = slotFor(key);
+        values[i] = value;
+    }
+
+    // Add delta to the key's value (absent keys start at 0), returns the new value
+    public int addTo(K key, int delta) {
+        int i = slotFor(key);
+        values[i] += delta;
+        return values[i];
+    }
+
+    public int getOrDefault(Object key, int defaultValue) {
+        if (key == null) return defaultValue;
+        int i = indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public boolean containsKey(Object key) {
+        return key != null && indexOf(key) >= 0;
+    }
+
+    // Remove a key, returns true if it was present
+    public boolean remove(Object key) {
+        if (key == null) return false;
+        int i = indexOf(key);
+        if (i < 0) return false;
+
+        // Backward-shift deletion, as in MyHashMap
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != null) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = null;
+        size--;
+        return true;
+    }
+
+    // Visit every entry in table order
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) action.accept((K) keys[i], values[i]);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new Object[newCapacity];
+        values = new int[newCapacity];
+        mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int j = hash(oldKeys[i]) & mask;
+                while (keys[j] != null) j = (j + 1) & mask;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,177 @@
+package data_structure;
+
+import java.util.Random;
+
+// Balanced search tree (treap) of items ordered by an int key, with subtree sizes so that
+// "how many keys are below x" is O(log n) and listing them is O(log n + k).
+// Equal keys are kept in insertion order through a sequence number tie-breaker.
+public class OrderStatisticTree<T> {
+    private class Node {
+        final T item;
+        final int key;
+        final long seq;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(T item, int key, long seq, int priority) {
+            this.item = item;
+            this.key = key;
+            this.seq = seq;
+            this.priority = priority;
+        }
+    }
+
+    private final Random random = new Random();
+    private final MyHashMap<T, Node> nodes = new MyHashMap<>();
+    private Node root;
+    private long nextSeq;
+
+    // Add an item under a key, or move it if it is already present
+    public void put(T item, int key) {
+        Node existing = nodes.get(item);
+        if (existing != null) {
+            if (existing.key == key) return;
+            root = delete(root, existing);
+        }
+        Node node = new Node(item, key, nextSeq++, random.nextInt());
+        nodes.put(item, node);
+        root = insert(root, node);
+    }
+
+    public void remove(T item) {
+        Node existing = nodes.remove(item);
+        if (existing != null) root = delete(root, existing);
+    }
+
+    public boolean contains(T item) {
+        return nodes.containsKey(item);
+    }
+
+    // Number of items whose key is strictly less than the given key
+    public int countBelow(int key) {
+        int count = 0;
+        Node current = root;
+        while (current != null) {
+            if (current.key < key) {
+                count += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return count;
+    }
+
+    // Items whose key is strictly less than the given key, in ascending key order
+    public MyList<T> below(int key) {
+        MyArrayList<T> results = new MyArrayList<>(countBelow(key));
+        collectBelow(root, key, results);
+        return results;
+    }
+
+    private void collectBelow(Node node, int key, MyArrayList<T> results) {
+        while (node != null) {
+            if (node.key < key) {
+                collectAll(node.left, results);
+                results.add(node.item);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+    }
+
+    private void collectAll(Node node, MyArrayList<T> results) {
+        if (node == null) return;
+        collectAll(node.left, results);
+        results.add(node.item);
+        collectAll(node.right, results);
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public void clear() {
+        root = null;
+        nodes.clear();
+    }
+
+    private static int compare(int keyA, long seqA, int keyB, long seqB) {
+        if (keyA != keyB) return Integer.compare(keyA, keyB);
+        return Long.compare(seqA, seqB);
+    }
+
+    private int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) return added;
+        if (compare(added.key, added.seq, node.key, node.seq) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, Node removed) {
+        if (node == null) return null;
+        int cmp = compare(removed.key, removed.seq, node.key, node.seq);
+        if (cmp < 0) {
+            node.left = delete(node.left, removed);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, removed);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    // Join two treaps where every key in left precedes every key in right
+    private Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,205 @@
+package data_structure;
+
+// Immutable hash map stored as a hash array mapped trie: each level consumes 5 bits of the hash
+// and keeps only its occupied branches, packed behind a 32-bit bitmap. put and remove copy the
+// O(log32 n) nodes on one path and share the rest with the old version. Keys that share all 32
+// hash bits end up in a collision node searched linearly. Null keys are not supported.
+public final class PersistentHashMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int LAST_SHIFT = 30; // shifts past this have no hash bits left
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    // For every set bitmap bit, array holds a (key, value) pair or (null, child node).
+    // A collision node has bitmap 0 and holds plain (key, value) pairs.
+    private static final class Node {
+        final int bitmap;
+        final Object[] array;
+        final boolean collision;
+
+        Node(int bitmap, Object[] array, boolean collision) {
+            this.bitmap = bitmap;
+            this.array = array;
+            this.collision = collision;
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    // Fibonacci hashing spreads IDs that differ only in their last characters, as in ObjectIntMap
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int hash = hash(key);
+        Node node = root;
+        int shift = 0;
+        while (node != null) {
+            if (node.collision) {
+                for (int i = 0; i < node.array.length; i += 2) {
+                    if (node.array[i].equals(key)) return (V) node.array[i + 1];
+                }
+                return null;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) return null;
+            int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+            Object stored = node.array[index];
+            if (stored != null) return stored.equals(key) ? (V) node.array[index + 1] : null;
+            node = (Node) node.array[index + 1];
+            shift += BITS;
+        }
+        return null;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    // New version with the key mapped to the value
+    public PersistentHashMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node newRoot = root == null
+                ? new Node(1 << (hash(key) & MASK), new Object[]{key, value}, false)
+                : put(root, 0, hash(key), key, value, added);
+        if (root == null) added[0] = true;
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    private static Node put(Node node, int shift, int hash, Object key, Object value, boolean[] added) {
+        if (node.collision) {
+            for (int i = 0; i < node.array.length; i += 2) {
+                if (node.array[i].equals(key)) {
+                    if (node.array[i + 1] == value) return node;
+                    Object[] copy = node.array.clone();
+                    copy[i + 1] = value;
+                    return new Node(0, copy, true);
+                }
+            }
+            added[0] = true;
+            return new Node(0, insertPair(node.array, node.array.length, key, value), true);
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            added[0] = true;
+            return new Node(node.bitmap | bit, insertPair(node.array, index, key, value), false);
+        }
+        Object stored = node.array[index];
+        Object storedValue = node.array[index + 1];
+        Object[] copy;
+        if (stored == null) {
+            Node child = put((Node) storedValue, shift + BITS, hash, key, value, added);
+            if (child == storedValue) return node;
+            copy = node.array.clone();
+            copy[index + 1] = child;
+        } else if (stored.equals(key)) {
+            if (storedValue == value) return node;
+            copy = node.array.clone();
+            copy[index + 1] = value;
+        } else {
+            // Two keys meet on this branch: move both one level down
+            added[0] = true;
+            copy = node.array.clone();
+            copy[index] = null;
+            copy[index + 1] = pair(shift + BITS, hash(stored), stored, storedValue, hash, key, value);
+        }
+        return new Node(node.bitmap, copy, false);
+    }
+
+    private static Node pair(int shift, int hash1, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        if (shift > LAST_SHIFT) return new Node(0, new Object[]{key1, value1, key2, value2}, true);
+        int branch1 = (hash1 >>> shift) & MASK;
+        int branch2 = (hash2 >>> shift) & MASK;
+        if (branch1 == branch2) {
+            return new Node(1 << branch1,
+                    new Object[]{null, pair(shift + BITS, hash1, key1, value1, hash2, key2, value2)}, false);
+        }
+        Object[] array = branch1 < branch2
+                ? new Object[]{key1, value1, key2, value2}
+                : new Object[]{key2, value2, key1, value1};
+        return new Node((1 << branch1) | (1 << branch2), array, false);
+    }
+
+    private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+        Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = key;
+        copy[index + 1] = value;
+        System.arraycopy(array, index, copy, index + 2, array.length - index);
+        return copy;
+    }
+
+    private static Object[] removePair(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 2, copy, index, array.length - index - 2);
+        return copy;
+    }
+
+    // New version without the key; this version if the key is absent
+    public PersistentHashMap<K, V> remove(Object key) {
+        if (root == null) return this;
+        Node newRoot = remove(root, 0, hash(key), key);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    // Returns the node unchanged if the key is absent, null if the node ends up empty
+    private static Node remove(Node node, int shift, int hash, Object key) {
+        if (node.collision) {
+            for (int i = 0; i < node.array.length; i += 2) {
+                if (node.array[i].equals(key)) {
+                    return node.array.length == 2 ? null : new Node(0, removePair(node.array, i), true);
+                }
+            }
+            return node;
+        }
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((node.bitmap & bit) == 0) return node;
+        int index = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+        Object stored = node.array[index];
+        if (stored == null) {
+            Node child = (Node) node.array[index + 1];
+            Node newChild = remove(child, shift + BITS, hash, key);
+            if (newChild == child) return node;
+            if (newChild == null) {
+                int bitmap = node.bitmap & ~bit;
+                return bitmap == 0 ? null : new Node(bitmap, removePair(node.array, index), false);
+            }
+            Object[] copy = node.array.clone();
+            if (newChild.array.length == 2 && newChild.array[0] != null) {
+                // A single pair left below: pull it up, so paths stay as short as the keys need
+                copy[index] = newChild.array[0];
+                copy[index + 1] = newChild.array[1];
+            } else {
+                copy[index + 1] = newChild;
+            }
+            return new Node(node.bitmap, copy, false);
+        }
+        if (!stored.equals(key)) return node;
+        int bitmap = node.bitmap & ~bit;
+        return bitmap == 0 ? null : new Node(bitmap, removePair(node.array, index), false);
+    }
+}
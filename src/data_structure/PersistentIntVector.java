@@ -0,0 +1,105 @@
+package data_structure;
+
+// Append-only immutable int vector, the primitive counterpart of PersistentVector: a 32-way trie
+// with int[] leaves, so each value costs 4 bytes instead of a boxed Integer. append copies one
+// root-to-leaf path and shares the rest with the old version.
+public final class PersistentIntVector {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentIntVector EMPTY = new PersistentIntVector(0, 0, new int[WIDTH]);
+
+    private final int size;
+    private final int shift; // 0 while the root is a leaf
+    private final Object root; // int[] leaf or Object[] branch
+
+    private PersistentIntVector(int size, int shift, Object root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    public static PersistentIntVector empty() {
+        return EMPTY;
+    }
+
+    // Build from the first count values of an array in one pass
+    public static PersistentIntVector of(int[] values, int count) {
+        if (count == 0) return EMPTY;
+        Object[] level = new Object[(count + MASK) >>> BITS];
+        for (int leaf = 0; leaf < level.length; leaf++) {
+            int[] node = new int[WIDTH];
+            int first = leaf << BITS;
+            System.arraycopy(values, first, node, 0, Math.min(WIDTH, count - first));
+            level[leaf] = node;
+        }
+        int shift = 0;
+        while (level.length > 1) {
+            Object[] parents = new Object[(level.length + MASK) >>> BITS];
+            for (int p = 0; p < parents.length; p++) {
+                Object[] node = new Object[WIDTH];
+                int first = p << BITS;
+                System.arraycopy(level, first, node, 0, Math.min(WIDTH, level.length - first));
+                parents[p] = node;
+            }
+            level = parents;
+            shift += BITS;
+        }
+        return new PersistentIntVector(count, shift, level[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        Object node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = ((Object[]) node)[(index >>> level) & MASK];
+        }
+        return ((int[]) node)[index & MASK];
+    }
+
+    // New version with the value added at the end
+    public PersistentIntVector append(int value) {
+        if (size == 1L << (shift + BITS)) {
+            Object[] taller = new Object[WIDTH];
+            taller[0] = root;
+            return new PersistentIntVector(size + 1, shift + BITS, assoc(taller, shift + BITS, size, value));
+        }
+        return new PersistentIntVector(size + 1, shift, assoc(root, shift, size, value));
+    }
+
+    private static Object assoc(Object node, int level, int index, int value) {
+        if (level == 0) {
+            int[] leaf = node == null ? new int[WIDTH] : ((int[]) node).clone();
+            leaf[index & MASK] = value;
+            return leaf;
+        }
+        Object[] copy = node == null ? new Object[WIDTH] : ((Object[]) node).clone();
+        int branch = (index >>> level) & MASK;
+        copy[branch] = assoc(copy[branch], level - BITS, index, value);
+        return copy;
+    }
+
+    // Copy of the values into a plain array
+    public int[] toArray() {
+        int[] values = new int[size];
+        copyInto(root, shift, values, 0);
+        return values;
+    }
+
+    private int copyInto(Object node, int level, int[] values, int offset) {
+        if (level == 0) {
+            int count = Math.min(WIDTH, size - offset);
+            System.arraycopy((int[]) node, 0, values, offset, count);
+            return offset + count;
+        }
+        for (Object child : (Object[]) node) {
+            if (child == null || offset >= size) break;
+            offset = copyInto(child, level - BITS, values, offset);
+        }
+        return offset;
+    }
+}
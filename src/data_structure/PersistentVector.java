@@ -0,0 +1,127 @@
+package data_structure;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Immutable vector stored as a 32-way trie. set and append copy only the arrays on the path from
+// the root to one leaf (O(log32 n) arrays of 32 slots) and share everything else with the old
+// version, so every change yields a new version without copying the whole vector.
+public final class PersistentVector<T> implements Iterable<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, new Object[WIDTH]);
+
+    private final int size;
+    private final int shift; // index bits resolved above the leaves; 0 while the root is a leaf
+    private final Object[] root;
+
+    private PersistentVector(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    // Build from a list in one pass: leaves are filled in order, then grouped 32 to a parent
+    public static <T> PersistentVector<T> of(MyList<? extends T> source) {
+        if (source.isEmpty()) return empty();
+        Object[] level = new Object[(source.size() + MASK) >>> BITS];
+        Iterator<? extends T> it = source.iterator();
+        for (int leaf = 0; leaf < level.length; leaf++) {
+            Object[] node = new Object[WIDTH];
+            for (int i = 0; i < WIDTH && it.hasNext(); i++) node[i] = it.next();
+            level[leaf] = node;
+        }
+        int shift = 0;
+        while (level.length > 1) {
+            Object[] parents = new Object[(level.length + MASK) >>> BITS];
+            for (int p = 0; p < parents.length; p++) {
+                Object[] node = new Object[WIDTH];
+                int first = p << BITS;
+                System.arraycopy(level, first, node, 0, Math.min(WIDTH, level.length - first));
+                parents[p] = node;
+            }
+            level = parents;
+            shift += BITS;
+        }
+        return new PersistentVector<>(source.size(), shift, (Object[]) level[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) leafFor(index)[index & MASK];
+    }
+
+    private Object[] leafFor(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    // New version with the value at index replaced
+    public PersistentVector<T> set(int index, T value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return new PersistentVector<>(size, shift, assoc(root, shift, index, value));
+    }
+
+    // New version with the value added at the end
+    public PersistentVector<T> append(T value) {
+        if (size == 1L << (shift + BITS)) {
+            // Root is full: the old root becomes the first child of a new, one level taller root
+            Object[] taller = new Object[WIDTH];
+            taller[0] = root;
+            return new PersistentVector<>(size + 1, shift + BITS, assoc(taller, shift + BITS, size, value));
+        }
+        return new PersistentVector<>(size + 1, shift, assoc(root, shift, size, value));
+    }
+
+    // Copy of the path down to index with the value stored; missing nodes are created on the way
+    private static Object[] assoc(Object[] node, int level, int index, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int branch = (index >>> level) & MASK;
+            copy[branch] = assoc((Object[]) copy[branch], level - BITS, index, value);
+        }
+        return copy;
+    }
+
+    // In index order, one trie walk per leaf
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (index >= size) throw new NoSuchElementException();
+                if (leaf == null || (index & MASK) == 0) leaf = leafFor(index);
+                return (T) leaf[index++ & MASK];
+            }
+        };
+    }
+}
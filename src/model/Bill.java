@@ -2,6 +2,7 @@ package model;
 
 import data_structure.MyLinkedList;
 import util.BillUtility;
+import util.Money;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -14,15 +15,15 @@ public class Bill {
     private final String customerId;
     private final String customerName;
     private final MyLinkedList<CartItem> items;
-    private final double totalAmount;
+    private final long totalAmountCents;
     private final String billId;
     private final String dateTime;
 
-    public Bill(String customerId, String customerName, MyLinkedList<CartItem> items, double totalAmount) {
+    public Bill(String customerId, String customerName, MyLinkedList<CartItem> items, long totalAmountCents) {
         this.customerId = customerId;
         this.customerName = customerName;
         this.items = items;
-        this.totalAmount = totalAmount;
+        this.totalAmountCents = totalAmountCents;
         this.billId = generateBillId();
         this.dateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
     }
@@ -51,20 +52,19 @@ public class Bill {
         System.out.println("-".repeat(60) + RESET);
 
         // Print items
-        for (int i = 0; i < items.size(); i++) {
-            CartItem item = items.get(i);
-            System.out.printf("%-8s | %-20s | %-8d | $%-9.2f | $%-9.2f\n",
+        for (CartItem item : items) {
+            System.out.printf("%-8s | %-20s | %-8d | $%-9s | $%-9s\n",
                 item.getMedicineId(),
                 item.getMedicineName(),
                 item.getQuantity(),
-                item.getPrice(),
-                item.getSubtotal());
+                Money.format(item.getPriceCents()),
+                Money.format(item.getSubtotalCents()));
         }
 
         // Print total
         System.out.println(CYAN + BOLD + "-".repeat(60) + RESET);
-        System.out.printf("%-38s | %-10s | $%-9.2f\n",
-            "", "Total Amount", totalAmount);
+        System.out.printf("%-38s | %-10s | $%-9s\n",
+            "", "Total Amount", Money.format(totalAmountCents));
         System.out.println(CYAN + BOLD + "=".repeat(60) + RESET);
 
         // Print thank you message
@@ -93,8 +93,8 @@ public class Bill {
         return items;
     }
 
-    public double getTotalAmount() {
-        return totalAmount;
+    public long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
     public String getBillId() {
@@ -1,6 +1,9 @@
 package model;
 
 import data_structure.MyLinkedList;
+import util.Money;
+
+import java.util.Iterator;
 
 public class Cart {
     private static final String RESET = "\u001B[0m";
@@ -43,7 +46,7 @@ public class Cart {
             }
 
             existingItem.setQuantity(newTotalQty);
-            existingItem.setSubtotal(existingItem.getQuantity() * medicine.getPrice());
+            existingItem.setSubtotalCents(Money.times(medicine.getPriceCents(), existingItem.getQuantity()));
             System.out.println("Updated quantity in cart.");
         } else {
             // Add new item to cart
@@ -51,8 +54,8 @@ public class Cart {
                     medicine.getId(),
                     medicine.getName(),
                     quantity,
-                    medicine.getPrice(),
-                    quantity * medicine.getPrice()
+                    medicine.getPriceCents(),
+                    Money.times(medicine.getPriceCents(), quantity)
             );
             items.add(item);
             System.out.println("Added to cart: " + medicine.getName());
@@ -60,9 +63,10 @@ public class Cart {
     }
 
     public void removeItem(String medicineId) {
-        for (int i = 0; i < items.size(); i++) {
-            if (items.get(i).getMedicineId().equals(medicineId)) {
-                items.remove(i);
+        Iterator<CartItem> it = items.iterator();
+        while (it.hasNext()) {
+            if (it.next().getMedicineId().equals(medicineId)) {
+                it.remove();
                 System.out.println("Item removed from cart.");
                 return;
             }
@@ -90,7 +94,7 @@ public class Cart {
         CartItem item = items.find(i -> i.getMedicineId().equals(medicineId));
         if (item != null) {
             item.setQuantity(newQuantity);
-            item.setSubtotal(newQuantity * item.getPrice());
+            item.setSubtotalCents(Money.times(item.getPriceCents(), newQuantity));
             System.out.println("Quantity updated.");
         } else {
             System.out.println("Item not found in cart.");
@@ -108,30 +112,31 @@ public class Cart {
             "No.", "Medicine", "Price", "Quantity", "Subtotal");
         System.out.println("-".repeat(60) + RESET);
 
-        double total = 0;
-        for (int i = 0; i < items.size(); i++) {
-            CartItem item = items.get(i);
-            System.out.printf("%-5d %-20s $%-9.2f %-10d $%-9.2f\n",
-                    (i+1),
+        long total = 0;
+        int i = 0;
+        for (CartItem item : items) {
+            System.out.printf("%-5d %-20s $%-9s %-10d $%-9s\n",
+                    (++i),
                     item.getMedicineName(),
-                    item.getPrice(),
+                    Money.format(item.getPriceCents()),
                     item.getQuantity(),
-                    item.getSubtotal()
+                    Money.format(item.getSubtotalCents())
             );
-            total += item.getSubtotal();
+            total += item.getSubtotalCents();
         }
 
         System.out.println(CYAN + BOLD + "-".repeat(60) + RESET);
-        System.out.printf("%-46s $%-9.2f\n", 
+        System.out.printf("%-46s $%-9s\n", 
             GREEN + BOLD + "Total:" + RESET, 
-            total);
+            Money.format(total));
         System.out.println(CYAN + BOLD + "=".repeat(60) + RESET);
     }
 
-    public double getCartTotal() {
-        double total = 0;
-        for (int i = 0; i < items.size(); i++) {
-            total += items.get(i).getSubtotal();
+    // Cart total in cents
+    public long getCartTotal() {
+        long total = 0;
+        for (CartItem item : items) {
+            total += item.getSubtotalCents();
         }
         return total;
     }
@@ -4,15 +4,15 @@ public class CartItem {
     private final String medicineId;
     private final String medicineName;
     private int quantity;
-    private final double price;
-    private double subtotal;
+    private final long priceCents;
+    private long subtotalCents;
 
-    public CartItem(String medicineId, String medicineName, int quantity, double price, double subtotal) {
+    public CartItem(String medicineId, String medicineName, int quantity, long priceCents, long subtotalCents) {
         this.medicineId = medicineId;
         this.medicineName = medicineName;
         this.quantity = quantity;
-        this.price = price;
-        this.subtotal = subtotal;
+        this.priceCents = priceCents;
+        this.subtotalCents = subtotalCents;
     }
 
     public String getMedicineId() {
@@ -31,15 +31,15 @@ public class CartItem {
         this.quantity = quantity;
     }
 
-    public double getPrice() {
-        return price;
+    public long getPriceCents() {
+        return priceCents;
     }
 
-    public double getSubtotal() {
-        return subtotal;
+    public long getSubtotalCents() {
+        return subtotalCents;
     }
 
-    public void setSubtotal(double subtotal) {
-        this.subtotal = subtotal;
+    public void setSubtotalCents(long subtotalCents) {
+        this.subtotalCents = subtotalCents;
     }
 }
\ No newline at end of file
@@ -1,23 +1,53 @@
 package model;
 
+import util.IsoDate;
+import util.Money;
+
+import java.time.LocalDate;
+
+// Immutable: stock and price changes produce a new Medicine, so a published catalog
+// snapshot never changes under its readers
 public class Medicine {
+    // Stands in for the expiry of a medicine whose date could not be parsed: sorts after every real
+    // date and never counts as expired
+    public static final int UNKNOWN_EXPIRY = Integer.MAX_VALUE;
+
     private final String id;
     private final String name;
     private final String manufacturer;
-    private double price;
-    private final String expiryDate; // Format: YYYY-MM-DD
-    private int quantity;
+    private final long priceCents;
+    private final int expiryEpochDay; // Days since 1970-01-01, parsed once
+    private final String expiryText;  // The expiry as loaded when it is not a valid date, otherwise null
+    private final int quantity;
 
     // Constructor
-    public Medicine(String id, String name, String manufacturer, double price, String expiryDate, int quantity) {
+    public Medicine(String id, String name, String manufacturer, long priceCents, int expiryEpochDay, int quantity) {
+        this(id, name, manufacturer, priceCents, expiryEpochDay, null, quantity);
+    }
+
+    private Medicine(String id, String name, String manufacturer, long priceCents, int expiryEpochDay,
+                     String expiryText, int quantity) {
         this.id = id;
         this.name = name;
         this.manufacturer = manufacturer;
-        this.price = price;
-        this.expiryDate = expiryDate;
+        this.priceCents = priceCents;
+        this.expiryEpochDay = expiryEpochDay;
+        this.expiryText = expiryText;
         this.quantity = quantity;
     }
 
+    // A medicine whose stored expiry is not a valid date. The text is kept as loaded so saving
+    // the catalog writes it back unchanged instead of dropping the medicine.
+    public static Medicine withUnparsedExpiry(String id, String name, String manufacturer, long priceCents,
+                                              String expiryText, int quantity) {
+        return new Medicine(id, name, manufacturer, priceCents, UNKNOWN_EXPIRY, expiryText, quantity);
+    }
+
+    // Expiry given as yyyy-MM-dd; throws DateTimeParseException if it is not a valid date
+    public Medicine(String id, String name, String manufacturer, long priceCents, String expiryDate, int quantity) {
+        this(id, name, manufacturer, priceCents, IsoDate.parse(expiryDate), quantity);
+    }
+
     // Getters
     public String getId() {
         return id;
@@ -31,33 +61,48 @@ public class Medicine {
         return manufacturer;
     }
 
-    public double getPrice() {
-        return price;
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public int getExpiryEpochDay() {
+        return expiryEpochDay;
+    }
+
+    // False when the stored expiry could not be parsed (see withUnparsedExpiry)
+    public boolean hasKnownExpiry() {
+        return expiryText == null;
     }
 
+    // Expiry as yyyy-MM-dd, or the unparsed text as loaded
     public String getExpiryDate() {
-        return expiryDate;
+        return expiryText != null ? expiryText : IsoDate.format(expiryEpochDay);
+    }
+
+    // Null when the expiry is unknown
+    public LocalDate getExpiryLocalDate() {
+        return expiryText != null ? null : LocalDate.ofEpochDay(expiryEpochDay);
     }
 
     public int getQuantity() {
         return quantity;
     }
 
-    // Setters
-    public void setQuantity(int quantity) {
-        this.quantity = quantity;
+    // Copies with one field changed
+    public Medicine withQuantity(int quantity) {
+        return new Medicine(id, name, manufacturer, priceCents, expiryEpochDay, expiryText, quantity);
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    public Medicine withPriceCents(long priceCents) {
+        return new Medicine(id, name, manufacturer, priceCents, expiryEpochDay, expiryText, quantity);
     }
 
     // toString method for easy display
     @Override
     public String toString() {
         return String.format(
-                "ID: %s | Name: %s | Manufacturer: %s | Price: ₹%.2f | Expiry: %s | Quantity: %d",
-                id, name, manufacturer, price, expiryDate, quantity
+                "ID: %s | Name: %s | Manufacturer: %s | Price: ₹%s | Expiry: %s | Quantity: %d",
+                id, name, manufacturer, Money.format(priceCents), getExpiryDate(), quantity
         );
     }
 }
@@ -1,31 +1,38 @@
 package model;
 
+import util.IsoDate;
+import util.Money;
+
 import java.time.LocalDate;
 
 
 public class Transaction {
-    private String transactionId;
+    private TransactionId transactionId;
     private String customerId;
     private String medicineId;
     private int quantity;
-    private double totalAmount;
-    private LocalDate transactionDate;
+    private long totalAmountCents;
+    private int transactionEpochDay;
+
+    public Transaction(TransactionId transactionId, String customerId, String medicineId, int quantity, long totalAmountCents, LocalDate transactionDate) {
+        this(transactionId, customerId, medicineId, quantity, totalAmountCents, (int) transactionDate.toEpochDay());
+    }
 
-    public Transaction(String transactionId, String customerId, String medicineId, int quantity, double totalAmount, LocalDate transactionDate) {
+    public Transaction(TransactionId transactionId, String customerId, String medicineId, int quantity, long totalAmountCents, int transactionEpochDay) {
         this.transactionId = transactionId;
         this.customerId = customerId;
         this.medicineId = medicineId;
         this.quantity = quantity;
-        this.totalAmount = totalAmount;
-        this.transactionDate = transactionDate;
+        this.totalAmountCents = totalAmountCents;
+        this.transactionEpochDay = transactionEpochDay;
     }
 
     // Getters and Setters
-    public String getTransactionId() {
+    public TransactionId getTransactionId() {
         return transactionId;
     }
 
-    public void setTransactionId(String transactionId) {
+    public void setTransactionId(TransactionId transactionId) {
         this.transactionId = transactionId;
     }
 
@@ -53,20 +60,24 @@ public class Transaction {
         this.quantity = quantity;
     }
 
-    public double getTotalAmount() {
-        return totalAmount;
+    public long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
-    public void setTotalAmount(double totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
     }
 
     public LocalDate getTransactionDate() {
-        return transactionDate;
+        return LocalDate.ofEpochDay(transactionEpochDay);
     }
 
     public void setTransactionDate(LocalDate transactionDate) {
-        this.transactionDate = transactionDate;
+        this.transactionEpochDay = (int) transactionDate.toEpochDay();
+    }
+
+    public int getTransactionEpochDay() {
+        return transactionEpochDay;
     }
 
     @Override
@@ -76,8 +87,8 @@ public class Transaction {
                 ", customerId='" + customerId + '\'' +
                 ", medicineId='" + medicineId + '\'' +
                 ", quantity=" + quantity +
-                ", totalAmount=" + totalAmount +
-                ", transactionDate=" + transactionDate +
+                ", totalAmount=" + Money.format(totalAmountCents) +
+                ", transactionDate=" + IsoDate.format(transactionEpochDay) +
                 '}';
     }
 }
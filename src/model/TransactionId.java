@@ -0,0 +1,109 @@
+package model;
+
+// 128-bit transaction ID held as two longs instead of a 36-char UUID string.
+// Text form is the canonical 8-4-4-4-12 lowercase hex, so IDs written from java.util.UUID
+// in older transaction rows parse and print back unchanged.
+public final class TransactionId implements Comparable<TransactionId> {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+
+    public TransactionId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    // Parse xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx (either case)
+    public static TransactionId parse(CharSequence text) {
+        return new TransactionId(parseMostSignificantBits(text), parseLeastSignificantBits(text));
+    }
+
+    // The two halves on their own, for loaders that store IDs as two long columns
+    public static long parseMostSignificantBits(CharSequence text) {
+        checkLayout(text);
+        long msb = parseHex(text, 0, 8);
+        msb = (msb << 16) | parseHex(text, 9, 13);
+        return (msb << 16) | parseHex(text, 14, 18);
+    }
+
+    public static long parseLeastSignificantBits(CharSequence text) {
+        checkLayout(text);
+        long lsb = parseHex(text, 19, 23);
+        return (lsb << 48) | parseHex(text, 24, 36);
+    }
+
+    private static void checkLayout(CharSequence text) {
+        if (text == null || text.length() != 36
+                || text.charAt(8) != '-' || text.charAt(13) != '-' || text.charAt(18) != '-' || text.charAt(23) != '-') {
+            throw new IllegalArgumentException("Invalid transaction ID: " + text);
+        }
+    }
+
+    private static long parseHex(CharSequence text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0) throw new IllegalArgumentException("Invalid transaction ID: " + text);
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    // Canonical text form of an ID given as two longs, without creating a TransactionId
+    public static String format(long msb, long lsb) {
+        char[] out = new char[36];
+        writeHex(out, 0, msb >>> 32, 8);
+        out[8] = '-';
+        writeHex(out, 9, msb >>> 16, 4);
+        out[13] = '-';
+        writeHex(out, 14, msb, 4);
+        out[18] = '-';
+        writeHex(out, 19, lsb >>> 48, 4);
+        out[23] = '-';
+        writeHex(out, 24, lsb, 12);
+        return new String(out);
+    }
+
+    // Write the low `digits` hex digits of value into out starting at offset
+    private static void writeHex(char[] out, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    // Unsigned order, which for generated IDs is creation order
+    @Override
+    public int compareTo(TransactionId other) {
+        int cmp = Long.compareUnsigned(mostSignificantBits, other.mostSignificantBits);
+        return cmp != 0 ? cmp : Long.compareUnsigned(leastSignificantBits, other.leastSignificantBits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionId)) return false;
+        TransactionId other = (TransactionId) o;
+        return mostSignificantBits == other.mostSignificantBits && leastSignificantBits == other.leastSignificantBits;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = mostSignificantBits ^ leastSignificantBits;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return format(mostSignificantBits, leastSignificantBits);
+    }
+}
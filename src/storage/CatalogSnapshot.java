@@ -0,0 +1,218 @@
+package storage;
+
+import data_structure.BKTree;
+import data_structure.MyArrayList;
+import data_structure.MyList;
+import data_structure.NGramIndex;
+import data_structure.PersistentHashMap;
+import data_structure.PersistentVector;
+import model.Medicine;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// One immutable version of the medicine catalog together with its lookup indexes.
+// Nothing is modified after construction, so any number of threads can read a snapshot
+// without locking; writers derive the next version (withAdded, withReplaced, withRemoved)
+// and publish it in a single reference swap.
+// Versions share structure instead of being copied: medicines sit in slots of a persistent
+// vector (catalog order, empty once removed), IDs map to slots through a persistent hash map,
+// and the name indexes hold slot numbers. A stock or price change therefore copies one
+// O(log n) path and leaves the name indexes alone; adding or removing a medicine touches only
+// that medicine's entries.
+// The version number increases with every change, so caches can key on it.
+public final class CatalogSnapshot implements Iterable<Medicine> {
+    private static final int MIN_COMPACT_SLOTS = 64;
+
+    private final long version;
+    private final PersistentVector<Medicine> slots;
+    private final int size;
+    // Keyed by upper-cased ID so lookups stay case-insensitive; first occurrence of an ID wins
+    private final PersistentHashMap<String, Integer> slotById;
+    private final NGramIndex<Integer> nameIndex;
+    private final BKTree<Integer> fuzzyIndex;
+    // Only a loaded file can repeat an ID; removal then has to find the later copies too
+    private final boolean duplicateIds;
+
+    // Index a full list of medicines, for loading
+    public CatalogSnapshot(long version, MyList<Medicine> source) {
+        this.version = version;
+        slots = PersistentVector.of(source);
+        size = slots.size();
+        PersistentHashMap<String, Integer> ids = PersistentHashMap.empty();
+        MyArrayList<Integer> slotNumbers = new MyArrayList<>(size);
+        boolean duplicates = false;
+        for (int slot = 0; slot < size; slot++) {
+            Integer boxed = slot;
+            String key = indexKey(slots.get(slot).getId());
+            if (ids.containsKey(key)) {
+                duplicates = true;
+            } else {
+                ids = ids.put(key, boxed);
+            }
+            slotNumbers.add(boxed);
+        }
+        slotById = ids;
+        duplicateIds = duplicates;
+        nameIndex = NGramIndex.of(slotNumbers, slot -> slots.get(slot).getName());
+        fuzzyIndex = BKTree.of(slotNumbers, slot -> slots.get(slot).getName());
+    }
+
+    private CatalogSnapshot(long version, PersistentVector<Medicine> slots, int size,
+                            PersistentHashMap<String, Integer> slotById, NGramIndex<Integer> nameIndex,
+                            BKTree<Integer> fuzzyIndex, boolean duplicateIds) {
+        this.version = version;
+        this.slots = slots;
+        this.size = size;
+        this.slotById = slotById;
+        this.nameIndex = nameIndex;
+        this.fuzzyIndex = fuzzyIndex;
+        this.duplicateIds = duplicateIds;
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot(0, new MyArrayList<>());
+    }
+
+    public static String indexKey(String id) {
+        return id.toUpperCase();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Medicine findById(String id) {
+        if (id == null) return null;
+        Integer slot = slotById.get(indexKey(id));
+        return slot == null ? null : slots.get(slot);
+    }
+
+    // Every medicine with this ID; more than one only if a loaded file repeated the ID
+    public MyList<Medicine> findAllById(String id) {
+        MyArrayList<Medicine> found = new MyArrayList<>();
+        if (!duplicateIds) {
+            Medicine med = findById(id);
+            if (med != null) found.add(med);
+            return found;
+        }
+        for (Medicine med : this) {
+            if (med.getId().equalsIgnoreCase(id)) found.add(med);
+        }
+        return found;
+    }
+
+    // Substring match on names, in catalog order (a renamed medicine is re-indexed at the end)
+    public MyList<Medicine> searchByName(String name) {
+        MyList<Integer> found = nameIndex.search(name);
+        found.sort(Integer::compare);
+        return resolve(found);
+    }
+
+    // Names within maxDistance edits of the query, closest first
+    public MyList<Medicine> searchFuzzy(String name, int maxDistance) {
+        return resolve(fuzzyIndex.search(name, maxDistance));
+    }
+
+    private MyList<Medicine> resolve(MyList<Integer> found) {
+        MyArrayList<Medicine> medicines = new MyArrayList<>(found.size());
+        for (Integer slot : found) {
+            medicines.add(slots.get(slot));
+        }
+        return medicines;
+    }
+
+    // Next version with the medicine added at the end
+    public CatalogSnapshot withAdded(Medicine med) {
+        Integer slot = slots.size();
+        String key = indexKey(med.getId());
+        boolean duplicate = slotById.containsKey(key);
+        return new CatalogSnapshot(version + 1, slots.append(med), size + 1,
+                duplicate ? slotById : slotById.put(key, slot),
+                nameIndex.add(slot, med.getName()), fuzzyIndex.add(slot, med.getName()),
+                duplicateIds || duplicate);
+    }
+
+    // Next version with the medicine of the same ID swapped for this copy
+    public CatalogSnapshot withReplaced(Medicine updated) {
+        Integer slot = slotById.get(indexKey(updated.getId()));
+        if (slot == null) throw new IllegalArgumentException("No medicine with ID " + updated.getId());
+        Medicine old = slots.get(slot);
+        NGramIndex<Integer> names = nameIndex;
+        BKTree<Integer> fuzzy = fuzzyIndex;
+        if (!old.getName().equals(updated.getName())) {
+            names = names.remove(slot).add(slot, updated.getName());
+            fuzzy = fuzzy.remove(slot, old.getName()).add(slot, updated.getName());
+        }
+        return new CatalogSnapshot(version + 1, slots.set(slot, updated), size, slotById, names, fuzzy, duplicateIds);
+    }
+
+    // Next version without the medicine(s) with this ID; this version if there are none
+    public CatalogSnapshot withRemoved(String id) {
+        String key = indexKey(id);
+        Integer slot = slotById.get(key);
+        if (slot == null) return this;
+        if (duplicateIds) {
+            // Rare (a hand-edited file); a full rebuild also drops the duplicate flag
+            MyArrayList<Medicine> remaining = toList();
+            remaining.removeIf(med -> indexKey(med.getId()).equals(key));
+            return new CatalogSnapshot(version + 1, remaining);
+        }
+        Medicine old = slots.get(slot);
+        CatalogSnapshot next = new CatalogSnapshot(version + 1, slots.set(slot, null), size - 1,
+                slotById.remove(key), nameIndex.remove(slot), fuzzyIndex.remove(slot, old.getName()), false);
+        // Once empty slots outnumber live ones, renumber; amortized O(1) per removal
+        int emptySlots = next.slots.size() - next.size;
+        if (emptySlots > next.size && next.slots.size() >= MIN_COMPACT_SLOTS) {
+            return new CatalogSnapshot(next.version, next.toList());
+        }
+        return next;
+    }
+
+    // Mutable copy of the medicines, in catalog order
+    public MyArrayList<Medicine> toList() {
+        MyArrayList<Medicine> copy = new MyArrayList<>(size + 1);
+        for (Medicine med : this) {
+            copy.add(med);
+        }
+        return copy;
+    }
+
+    // Read-only iteration in catalog order; remove() is not supported
+    @Override
+    public Iterator<Medicine> iterator() {
+        Iterator<Medicine> it = slots.iterator();
+        return new Iterator<Medicine>() {
+            private Medicine next = advance();
+
+            private Medicine advance() {
+                while (it.hasNext()) {
+                    Medicine med = it.next();
+                    if (med != null) return med;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Medicine next() {
+                if (next == null) throw new NoSuchElementException();
+                Medicine current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+}
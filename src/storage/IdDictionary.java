@@ -0,0 +1,50 @@
+package storage;
+
+import data_structure.MyArrayList;
+import data_structure.ObjectIntMap;
+
+// Dictionary of repeated ID strings such as "C008" or "MED010".
+// Each distinct ID is stored once and gets a dense int code; intern() hands back the
+// canonical instance so rows that share an ID also share one String.
+public class IdDictionary {
+    private final ObjectIntMap<String> codes;
+    private final MyArrayList<String> values;
+
+    public IdDictionary() {
+        this(16);
+    }
+
+    public IdDictionary(int expectedSize) {
+        codes = new ObjectIntMap<>(expectedSize);
+        values = new MyArrayList<>(expectedSize);
+    }
+
+    // Code for an ID, adding it if it is new
+    public int encode(String id) {
+        int code = codes.getOrDefault(id, -1);
+        if (code < 0) {
+            code = values.size();
+            codes.put(id, code);
+            values.add(id);
+        }
+        return code;
+    }
+
+    // Canonical instance of an ID, adding it if it is new
+    public String intern(String id) {
+        return values.get(encode(id));
+    }
+
+    // Code for an ID, or -1 if it has not been seen
+    public int lookup(String id) {
+        return codes.getOrDefault(id, -1);
+    }
+
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
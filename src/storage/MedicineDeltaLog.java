@@ -0,0 +1,248 @@
+package storage;
+
+import data_structure.MyArrayList;
+import data_structure.MyHashMap;
+import data_structure.MyList;
+import data_structure.ObjectIntMap;
+import model.Medicine;
+import storage.TransactionJournal.FsyncPolicy;
+import util.CSVUtility;
+import util.CsvReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Change log for the medicines CSV. Writers mark the medicines they touch as dirty; once per
+// operation the dirty set is drained and appended as one record per dirty medicine:
+//   U,<medicine row>   medicine added or changed (the full row, so replaying it twice is harmless)
+//   D,<id>             medicine removed
+// The snapshot file plus the log is the current catalog. Once enough records pile up, and
+// otherwise every compaction interval, a background thread writes a fresh snapshot from the
+// published catalog and empties the log.
+public class MedicineDeltaLog implements PersistenceService.AppendTarget, Closeable {
+    private final Path snapshotPath;
+    private final Path logPath;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final Supplier<CatalogSnapshot> catalog;
+    private final int compactionThreshold;
+    private final ScheduledExecutorService compactor;
+
+    // Dirty medicines in first-touched order; a null record means the medicine was removed
+    private final ObjectIntMap<String> dirtySlots = new ObjectIntMap<>();
+    private final MyArrayList<String> dirtyIds = new MyArrayList<>();
+    private final MyArrayList<Medicine> dirtyRecords = new MyArrayList<>();
+
+    private int recordsSinceCompaction;
+    private boolean compactionScheduled;
+
+    public MedicineDeltaLog(String snapshotPath, String logPath, FsyncPolicy fsyncPolicy,
+                            Supplier<CatalogSnapshot> catalog, int compactionThreshold,
+                            int compactionIntervalSeconds) throws IOException {
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.fsyncPolicy = fsyncPolicy;
+        this.catalog = catalog;
+        this.compactionThreshold = compactionThreshold;
+        this.logPath = Paths.get(logPath);
+        channel = FileChannel.open(this.logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        channel.position(size);
+        if (size > 0 && !endsWithNewline(size)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'\n'})); // terminate a record torn by a crash
+        }
+        recordsSinceCompaction = size > 0 ? 1 : 0; // exact count unknown, only "something to compact"
+        compactor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "medicine-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (compactionIntervalSeconds > 0) {
+            compactor.scheduleWithFixedDelay(this::compactInBackground, compactionIntervalSeconds,
+                    compactionIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean endsWithNewline(long size) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    // Apply the records in a log file to medicines loaded from the snapshot, in log order
+    public static MyList<Medicine> replay(String logPath, MyList<Medicine> base) {
+        MyArrayList<Medicine> medicines = new MyArrayList<>(base.size() + 1);
+        MyHashMap<String, Integer> positions = new MyHashMap<>(base.size());
+        for (Medicine med : base) {
+            positions.putIfAbsent(CatalogSnapshot.indexKey(med.getId()), medicines.size());
+            medicines.add(med);
+        }
+        boolean removedAny = false;
+        try (CsvReader csv = CsvReader.open(logPath)) {
+            while (csv.nextRow()) {
+                String kind = csv.string(0);
+                if (kind.equals("U") && csv.fieldCount() == 7) {
+                    Medicine med;
+                    try {
+                        med = CSVUtility.readMedicine(csv, 1);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Skipping malformed medicine change: " + csv.line());
+                        continue;
+                    }
+                    String key = CatalogSnapshot.indexKey(med.getId());
+                    Integer position = positions.get(key);
+                    if (position == null) {
+                        positions.put(key, medicines.size());
+                        medicines.add(med);
+                    } else {
+                        medicines.set(position, med);
+                    }
+                } else if (kind.equals("D") && csv.fieldCount() == 2) {
+                    Integer position = positions.remove(CatalogSnapshot.indexKey(csv.string(1)));
+                    if (position != null) {
+                        medicines.set(position, null);
+                        removedAny = true;
+                    }
+                } else {
+                    System.out.println("Skipping malformed medicine change: " + csv.line());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return base; // no changes since the last snapshot
+        } catch (IOException e) {
+            System.out.println("Error reading medicine change log: " + e.getMessage());
+        }
+        if (removedAny) medicines.removeIf(med -> med == null);
+        return medicines;
+    }
+
+    // Record that a medicine was added or changed
+    public synchronized void markUpdated(Medicine med) {
+        markDirty(med.getId(), med);
+    }
+
+    // Record that a medicine was removed
+    public synchronized void markRemoved(String id) {
+        markDirty(id, null);
+    }
+
+    private void markDirty(String id, Medicine record) {
+        String key = CatalogSnapshot.indexKey(id);
+        int slot = dirtySlots.getOrDefault(key, -1);
+        if (slot >= 0) {
+            dirtyRecords.set(slot, record); // only the latest state of a medicine is written
+        } else {
+            dirtySlots.put(key, dirtyIds.size());
+            dirtyIds.add(id);
+            dirtyRecords.add(record);
+        }
+    }
+
+    // Format every dirty medicine as a log record and clear the dirty set; empty if nothing changed
+    public synchronized String drainDirty() {
+        if (dirtyIds.isEmpty()) return "";
+        StringBuilder records = new StringBuilder(64 * dirtyIds.size());
+        for (int i = 0; i < dirtyIds.size(); i++) {
+            Medicine record = dirtyRecords.get(i);
+            if (record == null) {
+                CSVUtility.appendField(records.append("D,"), dirtyIds.get(i)).append('\n');
+            } else {
+                CSVUtility.appendMedicineRow(records.append("U,"), record).append('\n');
+            }
+        }
+        dirtySlots.clear();
+        dirtyIds.clear();
+        dirtyRecords.clear();
+        return records.toString();
+    }
+
+    // Append every dirty medicine in one write and clear the dirty set
+    public void flush() throws IOException {
+        String records = drainDirty();
+        if (records.isEmpty()) return;
+        write(records);
+        sync();
+    }
+
+    // Append formatted records; schedules a compaction once enough have piled up
+    @Override
+    public synchronized void write(CharSequence records) throws IOException {
+        if (records.length() == 0) return;
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(records));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        for (int i = 0; i < records.length(); i++) {
+            if (records.charAt(i) == '\n') recordsSinceCompaction++;
+        }
+        if (recordsSinceCompaction >= compactionThreshold && !compactionScheduled) {
+            compactionScheduled = true;
+            compactor.execute(this::compactInBackground);
+        }
+    }
+
+    @Override
+    public synchronized void sync() throws IOException {
+        if (fsyncPolicy == FsyncPolicy.EVERY_APPEND) channel.force(false);
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (IOException e) {
+            System.out.println("Error compacting medicine change log: " + e.getMessage());
+        }
+    }
+
+    // Write the published catalog as the new snapshot and empty the log. The catalog is read
+    // under this log's lock, so it already contains every record flushed so far; a record
+    // flushed afterwards repeats a change the snapshot may already hold, which replays the same.
+    // The log is only truncated once the new snapshot and its rename are on disk, so a crash
+    // at any point still leaves a snapshot plus log that replay to the full catalog.
+    public synchronized void compact() throws IOException {
+        compactionScheduled = false;
+        if (recordsSinceCompaction == 0) return;
+        CatalogSnapshot current = catalog.get();
+        PersistenceService.replaceDurably(snapshotPath, out -> CSVUtility.writeMedicines(out, current));
+        channel.truncate(0);
+        // Make the truncation durable, so a crash cannot bring back records the snapshot already holds
+        channel.force(true);
+        channel.position(0);
+        recordsSinceCompaction = 0;
+    }
+
+    public synchronized int getRecordsSinceCompaction() {
+        return recordsSinceCompaction;
+    }
+
+    @Override
+    public String toString() {
+        return logPath.toString();
+    }
+
+    // Flush pending changes and fold the log into the snapshot, so the next start reads one file
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            flush();
+            compact();
+        } finally {
+            synchronized (this) {
+                channel.close();
+            }
+        }
+    }
+}
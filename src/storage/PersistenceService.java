@@ -0,0 +1,246 @@
+package storage;
+
+import data_structure.MyArrayList;
+import data_structure.MyRingBufferQueue;
+import data_structure.MyRingBufferQueue.FullPolicy;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Background writer for every data file. Callers queue writes and carry on; a single writer
+// thread collects queued requests into a batch (up to maxBatchSize requests, waiting at most
+// maxDelayMillis after the first) and commits the batch as a group:
+//   - appends to the same log are concatenated into one write and one sync
+//   - whole-file saves of the same file collapse to the newest content
+// Every request gets a future that completes once its data is durable (or failed).
+// Content is passed as finished text, so the writer never reads live application state.
+public class PersistenceService implements Closeable {
+    // An append-only file such as the transaction journal or the medicine change log
+    public interface AppendTarget {
+        void write(CharSequence records) throws IOException;
+
+        // Make everything written so far durable, according to the target's fsync policy
+        void sync() throws IOException;
+    }
+
+    // Produces the full contents of a file being replaced
+    public interface ContentWriter {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    // Longest single sleep while a batch is open, so new requests join it promptly
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private static final class Request {
+        final AppendTarget target; // append request, or null
+        final String filepath;     // whole-file save, or null
+        final CharSequence content;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Request(AppendTarget target, String filepath, CharSequence content) {
+            this.target = target;
+            this.filepath = filepath;
+            this.content = content;
+        }
+    }
+
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    // SPILL: the counter never blocks or loses a write because the writer is behind
+    private final MyRingBufferQueue<Request> queue = new MyRingBufferQueue<>(1024, FullPolicy.SPILL);
+    private final Thread writer;
+    private volatile boolean closing;
+
+    public PersistenceService(int maxBatchSize, long maxDelayMillis) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMillis));
+        writer = new Thread(this::run, "persistence-writer");
+        writer.setDaemon(true); // close() drains the queue; a daemon never keeps the JVM alive
+        writer.start();
+    }
+
+    // Queue records for the end of an append-only file
+    public CompletableFuture<Void> append(AppendTarget target, CharSequence records) {
+        return submit(new Request(target, null, records));
+    }
+
+    // Queue a full replacement of a file; the file is swapped in atomically
+    public CompletableFuture<Void> save(String filepath, CharSequence content) {
+        return submit(new Request(null, filepath, content));
+    }
+
+    // Completes once everything queued before it is durable
+    public CompletableFuture<Void> flush() {
+        return submit(new Request(null, null, null));
+    }
+
+    private CompletableFuture<Void> submit(Request request) {
+        // Checked and queued under the lock, so nothing slips in after close() lets the writer drain
+        synchronized (this) {
+            if (closing) {
+                request.done.completeExceptionally(new IllegalStateException("Persistence service is closed"));
+                return request.done;
+            }
+            queue.put(request);
+        }
+        LockSupport.unpark(writer);
+        return request.done;
+    }
+
+    private void run() {
+        MyArrayList<Request> batch = new MyArrayList<>(maxBatchSize);
+        while (true) {
+            Request first = queue.poll();
+            if (first == null) {
+                if (closing && queue.isEmpty()) return;
+                // Idle: sleep until submit() or close() unparks the writer (a permit given before
+                // this point makes park return at once, so no request is missed)
+                LockSupport.park(this);
+                continue;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxDelayNanos;
+            while (batch.size() < maxBatchSize) {
+                Request next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                } else if (closing || System.nanoTime() >= deadline) {
+                    break;
+                } else {
+                    LockSupport.parkNanos(this, Math.min(PARK_NANOS, deadline - System.nanoTime()));
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    // Write one batch. Requests are grouped by file in order of first appearance, so the
+    // relative order of appends to one log is kept.
+    private void commit(MyArrayList<Request> batch) {
+        MyArrayList<Object> files = new MyArrayList<>();
+        MyArrayList<StringBuilder> appended = new MyArrayList<>();
+        MyArrayList<CharSequence> latestContent = new MyArrayList<>();
+        int[] fileOf = new int[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Request request = batch.get(i);
+            Object key = request.target != null ? request.target : request.filepath;
+            if (key == null) {
+                fileOf[i] = -1; // flush marker, nothing to write
+                continue;
+            }
+            int file = indexOf(files, key);
+            if (file < 0) {
+                file = files.size();
+                files.add(key);
+                appended.add(request.target != null ? new StringBuilder() : null);
+                latestContent.add(null);
+            }
+            fileOf[i] = file;
+            if (request.target != null) {
+                appended.get(file).append(request.content);
+            } else {
+                latestContent.set(file, request.content);
+            }
+        }
+
+        IOException[] failures = new IOException[files.size()];
+        for (int file = 0; file < files.size(); file++) {
+            try {
+                Object key = files.get(file);
+                if (key instanceof AppendTarget) {
+                    AppendTarget target = (AppendTarget) key;
+                    target.write(appended.get(file));
+                    target.sync();
+                } else {
+                    replaceFile((String) key, latestContent.get(file));
+                }
+            } catch (IOException e) {
+                System.out.println("Error writing " + files.get(file) + ": " + e.getMessage());
+                failures[file] = e;
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Request request = batch.get(i);
+            IOException failure = fileOf[i] < 0 ? null : failures[fileOf[i]];
+            if (failure == null) {
+                request.done.complete(null);
+            } else {
+                request.done.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static int indexOf(MyArrayList<Object> files, Object key) {
+        for (int i = 0; i < files.size(); i++) {
+            if (files.get(i).equals(key)) return i;
+        }
+        return -1;
+    }
+
+    // Swap in the new contents durably, so readers never see a half-written file
+    private static void replaceFile(String filepath, CharSequence content) throws IOException {
+        replaceDurably(Paths.get(filepath), out -> out.append(content));
+    }
+
+    // Write the new contents to a temp file, force them to disk, rename the temp file over the
+    // original and sync the directory. After a crash the file holds either the old or the new
+    // contents, never an empty or torn one.
+    static void replaceDurably(Path path, ContentWriter content) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(path.toAbsolutePath().getParent());
+    }
+
+    // Make a rename in this directory durable
+    private static void syncDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // directories cannot be opened on some platforms (Windows); nothing to sync there
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    // Stop accepting requests, commit everything already queued and wait for the writer to finish
+    @Override
+    public void close() {
+        synchronized (this) {
+            closing = true;
+        }
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
@@ -0,0 +1,206 @@
+package storage;
+
+import data_structure.IntArrayList;
+import data_structure.LongArrayList;
+import data_structure.MyArrayList;
+import data_structure.MyList;
+import model.Transaction;
+import model.TransactionId;
+
+// Struct-of-arrays transaction history: one primitive column per field, one row per transaction.
+// Customer and medicine IDs are dictionary-encoded to int codes, amounts are kept in cents and
+// dates as epoch days, so reporting scans touch flat arrays instead of millions of objects.
+// Transaction objects are only built on demand, for display.
+public class TransactionColumns {
+    // Transaction IDs as two long columns (high and low 64 bits)
+    private final LongArrayList idHigh;
+    private final LongArrayList idLow;
+    private final IntArrayList customerCodes;
+    private final IntArrayList medicineCodes;
+    private final IntArrayList quantities;
+    private final LongArrayList amountCents;
+    private final IntArrayList epochDays;
+    private final IdDictionary customerDictionary = new IdDictionary();
+    private final IdDictionary medicineDictionary = new IdDictionary();
+
+    public TransactionColumns() {
+        this(16);
+    }
+
+    // Pre-size every column for the expected number of rows
+    public TransactionColumns(int expectedRows) {
+        idHigh = new LongArrayList(expectedRows);
+        idLow = new LongArrayList(expectedRows);
+        customerCodes = new IntArrayList(expectedRows);
+        medicineCodes = new IntArrayList(expectedRows);
+        quantities = new IntArrayList(expectedRows);
+        amountCents = new LongArrayList(expectedRows);
+        epochDays = new IntArrayList(expectedRows);
+    }
+
+    // Make room for at least this many rows without regrowing
+    public void ensureCapacity(int rows) {
+        idHigh.ensureCapacity(rows);
+        idLow.ensureCapacity(rows);
+        customerCodes.ensureCapacity(rows);
+        medicineCodes.ensureCapacity(rows);
+        quantities.ensureCapacity(rows);
+        amountCents.ensureCapacity(rows);
+        epochDays.ensureCapacity(rows);
+    }
+
+    // Append a row, returns its row number
+    public int add(TransactionId transactionId, String customerId, String medicineId, int quantity, long cents, int epochDay) {
+        return add(transactionId.getMostSignificantBits(), transactionId.getLeastSignificantBits(),
+                customerId, medicineId, quantity, cents, epochDay);
+    }
+
+    // Same, with the transaction ID given as its two halves
+    public int add(long transactionIdHigh, long transactionIdLow, String customerId, String medicineId,
+                   int quantity, long cents, int epochDay) {
+        idHigh.add(transactionIdHigh);
+        idLow.add(transactionIdLow);
+        customerCodes.add(customerDictionary.encode(customerId));
+        medicineCodes.add(medicineDictionary.encode(medicineId));
+        quantities.add(quantity);
+        amountCents.add(cents);
+        epochDays.add(epochDay);
+        return idHigh.size() - 1;
+    }
+
+    // Append every row of another history after this one's, re-coding its IDs into this history's
+    // dictionaries. Appending in file order gives the same codes a single sequential load would.
+    public void appendAll(TransactionColumns other) {
+        int[] customerMap = new int[other.distinctCustomers()];
+        for (int code = 0; code < customerMap.length; code++) {
+            customerMap[code] = customerDictionary.encode(other.customerIdOf(code));
+        }
+        int[] medicineMap = new int[other.distinctMedicines()];
+        for (int code = 0; code < medicineMap.length; code++) {
+            medicineMap[code] = medicineDictionary.encode(other.medicineIdOf(code));
+        }
+        ensureCapacity(size() + other.size());
+        for (int row = 0; row < other.size(); row++) {
+            customerCodes.add(customerMap[other.customerCodes.get(row)]);
+            medicineCodes.add(medicineMap[other.medicineCodes.get(row)]);
+        }
+        idHigh.addAll(other.idHigh);
+        idLow.addAll(other.idLow);
+        quantities.addAll(other.quantities);
+        amountCents.addAll(other.amountCents);
+        epochDays.addAll(other.epochDays);
+    }
+
+    public int add(Transaction tx) {
+        return add(tx.getTransactionId(), tx.getCustomerId(), tx.getMedicineId(), tx.getQuantity(),
+                tx.getTotalAmountCents(), tx.getTransactionEpochDay());
+    }
+
+    public int size() {
+        return idHigh.size();
+    }
+
+    public boolean isEmpty() {
+        return idHigh.isEmpty();
+    }
+
+    public TransactionId getTransactionId(int row) {
+        return new TransactionId(idHigh.get(row), idLow.get(row));
+    }
+
+    // Text form of a row's transaction ID, without an intermediate TransactionId
+    public String formatTransactionId(int row) {
+        return TransactionId.format(idHigh.get(row), idLow.get(row));
+    }
+
+    public int getCustomerCode(int row) {
+        return customerCodes.get(row);
+    }
+
+    public int getMedicineCode(int row) {
+        return medicineCodes.get(row);
+    }
+
+    public int getQuantity(int row) {
+        return quantities.get(row);
+    }
+
+    public long getAmountCents(int row) {
+        return amountCents.get(row);
+    }
+
+    public int getEpochDay(int row) {
+        return epochDays.get(row);
+    }
+
+    public String customerIdOf(int code) {
+        return customerDictionary.decode(code);
+    }
+
+    public String medicineIdOf(int code) {
+        return medicineDictionary.decode(code);
+    }
+
+    // Code for an ID, or -1 if no row uses it
+    public int customerCodeOf(String customerId) {
+        return customerDictionary.lookup(customerId);
+    }
+
+    public int medicineCodeOf(String medicineId) {
+        return medicineDictionary.lookup(medicineId);
+    }
+
+    // Canonical ID instances, shared with every row and materialized Transaction
+    public String internCustomerId(String customerId) {
+        return customerDictionary.intern(customerId);
+    }
+
+    public String internMedicineId(String medicineId) {
+        return medicineDictionary.intern(medicineId);
+    }
+
+    public int distinctCustomers() {
+        return customerDictionary.size();
+    }
+
+    public int distinctMedicines() {
+        return medicineDictionary.size();
+    }
+
+    public long totalAmountCents() {
+        return amountCents.sum();
+    }
+
+    public long totalQuantity() {
+        return quantities.sum();
+    }
+
+    // Build a Transaction object for one row
+    public Transaction materialize(int row) {
+        return new Transaction(
+                getTransactionId(row),
+                customerIdOf(customerCodes.get(row)),
+                medicineIdOf(medicineCodes.get(row)),
+                quantities.get(row),
+                amountCents.get(row),
+                epochDays.get(row));
+    }
+
+    // Materialize every row, in row order
+    public MyList<Transaction> materializeAll() {
+        MyArrayList<Transaction> list = new MyArrayList<>(size());
+        for (int row = 0; row < size(); row++) {
+            list.add(materialize(row));
+        }
+        return list;
+    }
+
+    // Materialize the given rows, in the order given
+    public MyList<Transaction> materialize(MyList<Integer> rows) {
+        MyArrayList<Transaction> list = new MyArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            list.add(materialize(rows.get(i)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,88 @@
+package storage;
+
+import util.CSVUtility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Append-only writer for the transactions CSV. The file is opened once and new rows are
+// appended at the end, so a sale costs one small write instead of a rewrite of the whole
+// history. Reading the file back with CSVUtility.loadTransactions replays the journal.
+public class TransactionJournal implements PersistenceService.AppendTarget, Closeable {
+    // When appended rows are forced to the storage device
+    public enum FsyncPolicy {
+        NEVER,        // leave flushing to the operating system
+        EVERY_APPEND  // fsync after every append (or group commit), so an acknowledged sale survives a crash
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+
+    public TransactionJournal(String filepath, FsyncPolicy fsyncPolicy) throws IOException {
+        path = Paths.get(filepath);
+        this.fsyncPolicy = fsyncPolicy;
+        // READ is needed to check the last byte, which rules out APPEND; this is the only
+        // writer, so positioning at the end once is enough
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        channel.position(size);
+        if (size == 0) {
+            write(CSVUtility.TRANSACTIONS_HEADER + "\n");
+        } else if (!endsWithNewline(size)) {
+            // Terminate the last line (a file saved without a trailing newline, or a torn write)
+            write("\n");
+        }
+    }
+
+    private boolean endsWithNewline(long size) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    // CSV lines for rows [fromRow, toRow) of the history, ready to be appended
+    public static String formatRows(TransactionColumns columns, int fromRow, int toRow) {
+        StringBuilder sb = new StringBuilder(80 * (toRow - fromRow));
+        for (int row = fromRow; row < toRow; row++) {
+            CSVUtility.appendTransactionRow(sb, columns, row).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Append already formatted lines at the end of the file
+    @Override
+    public synchronized void write(CharSequence text) throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    @Override
+    public synchronized void sync() throws IOException {
+        if (fsyncPolicy == FsyncPolicy.EVERY_APPEND) channel.force(false);
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
@@ -34,19 +34,19 @@ public class BillUtility {
             writer.println("------------------------------------------------");
 
             MyLinkedList<CartItem> items = bill.getItems();
-            for (int i = 0; i < items.size(); i++) {
-                CartItem item = items.get(i);
-                writer.println(String.format("%-5d %-20s $%-9.2f %-10d $%-9.2f",
-                        (i + 1),
+            int i = 0;
+            for (CartItem item : items) {
+                writer.println(String.format("%-5d %-20s $%-9s %-10d $%-9s",
+                        (++i),
                         item.getMedicineName(),
-                        item.getPrice(),
+                        Money.format(item.getPriceCents()),
                         item.getQuantity(),
-                        item.getSubtotal()));
+                        Money.format(item.getSubtotalCents())));
             }
 
             // Bill footer
             writer.println("------------------------------------------------");
-            writer.println(String.format("TOTAL AMOUNT: $%.2f", bill.getTotalAmount()));
+            writer.println("TOTAL AMOUNT: $" + Money.format(bill.getTotalAmountCents()));
             writer.println("================================================");
             writer.println("Thank you for shopping with us!");
             writer.println("================================================");
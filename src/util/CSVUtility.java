@@ -2,32 +2,47 @@ package util;
 
 import model.Medicine;
 import model.Customer;
-import model.Transaction;
-import data_structure.MyLinkedList;
+import model.TransactionId;
+import storage.TransactionColumns;
+import data_structure.MyArrayList;
+import data_structure.MyList;
 
 import java.io.*;
-import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class CSVUtility {
+    public static final String MEDICINES_HEADER = "ID,Name,Manufacturer,Price,ExpiryDate,Quantity";
+    public static final String CUSTOMERS_HEADER = "customerId,name,phoneNumber,email,password";
+    public static final String TRANSACTIONS_HEADER = "transactionId,customerId,medicineId,quantity,totalAmount,transactionDate";
+
+    // Parallel transaction loads: a few ranges per worker keep workers busy when ranges parse
+    // at different speeds; ranges below the minimum are not worth a task
+    private static final int RANGES_PER_WORKER = 4;
+    private static final long MIN_RANGE_BYTES = 4L << 20;
+
+    // Expected data rows (lines after the header) so load lists can be pre-sized in one allocation
+    private static int expectedDataRows(CsvReader csv) {
+        return Math.max(0, csv.estimateLineCount() - 1);
+    }
 
     // Load Medicine data from CSV
-    public static MyLinkedList<Medicine> loadMedicines(String filepath) {
-        MyLinkedList<Medicine> list = new MyLinkedList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            String line;
-            br.readLine(); // skip header
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 6) {
-                    Medicine med = new Medicine(
-                            parts[0].trim(),
-                            parts[1].trim(),
-                            parts[2].trim(),
-                            Double.parseDouble(parts[3].trim()),
-                            parts[4].trim(),
-                            Integer.parseInt(parts[5].trim())
-                    );
+    public static MyList<Medicine> loadMedicines(String filepath) {
+        MyArrayList<Medicine> list = new MyArrayList<>();
+        try (CsvReader csv = CsvReader.open(filepath)) {
+            list.ensureCapacity(expectedDataRows(csv));
+            csv.nextRow(); // skip header
+            while (csv.nextRow()) {
+                if (csv.fieldCount() != 6) continue;
+                try {
+                    Medicine med = readMedicine(csv, 0);
+                    if (!med.hasKnownExpiry()) {
+                        System.out.println("Keeping medicine with invalid expiry date as entered: " + csv.line());
+                    }
                     list.add(med);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipping malformed medicine row: " + csv.line());
                 }
             }
         } catch (IOException e) {
@@ -36,42 +51,90 @@ public class CSVUtility {
         return list;
     }
 
+    // Medicine from the six fields starting at `first` of the current row. An expiry that is
+    // not a valid date is kept as text (Medicine.withUnparsedExpiry), so the row survives the
+    // next save; other bad fields throw IllegalArgumentException.
+    public static Medicine readMedicine(CsvReader csv, int first) {
+        String id = csv.string(first);
+        String name = csv.string(first + 1);
+        String manufacturer = csv.string(first + 2);
+        long priceCents = Money.parseCents(csv.field(first + 3));
+        int quantity = csv.intField(first + 5);
+        int expiryEpochDay;
+        try {
+            expiryEpochDay = IsoDate.parse(csv.field(first + 4));
+        } catch (DateTimeParseException e) {
+            return Medicine.withUnparsedExpiry(id, name, manufacturer, priceCents, csv.string(first + 4), quantity);
+        }
+        return new Medicine(id, name, manufacturer, priceCents, expiryEpochDay, quantity);
+    }
+
+    // Append text as one CSV field, quoted only if it contains a separator, quote, line break
+    // or surrounding blanks (which the reader would otherwise trim)
+    public static StringBuilder appendField(StringBuilder sb, String text) {
+        boolean quote = !text.isEmpty() && (text.charAt(0) <= ' ' || text.charAt(text.length() - 1) <= ' ');
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return sb.append(text);
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    // Append one medicine in CSV form (no line terminator), shared by the full save and the delta log
+    public static StringBuilder appendMedicineRow(StringBuilder sb, Medicine med) {
+        appendField(sb, med.getId()).append(',');
+        appendField(sb, med.getName()).append(',');
+        appendField(sb, med.getManufacturer()).append(',');
+        Money.appendTo(sb, med.getPriceCents()).append(',');
+        if (med.hasKnownExpiry()) {
+            IsoDate.appendTo(sb, med.getExpiryEpochDay());
+        } else {
+            appendField(sb, med.getExpiryDate());
+        }
+        return sb.append(',').append(med.getQuantity());
+    }
+
     // Save Medicine data to CSV
-    public static void saveMedicines(String filepath, MyLinkedList<Medicine> list) {
+    public static void saveMedicines(String filepath, Iterable<Medicine> list) {
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(filepath))) {
-            bw.write("ID,Name,Manufacturer,Price,ExpiryDate,Quantity\n");
-            for (int i = 0; i < list.size(); i++) {
-                Medicine med = list.get(i);
-                bw.write(String.join(",",
-                        med.getId(),
-                        med.getName(),
-                        med.getManufacturer(),
-                        String.valueOf(med.getPrice()),
-                        med.getExpiryDate(),
-                        String.valueOf(med.getQuantity())
-                ));
-                bw.newLine();
-            }
+            writeMedicines(bw, list);
         } catch (IOException e) {
             System.out.println("Error writing CSV: " + e.getMessage());
         }
     }
 
+    // Header and one row per medicine; IOExceptions are left to the caller
+    public static void writeMedicines(Writer out, Iterable<Medicine> list) throws IOException {
+        StringBuilder sb = new StringBuilder(128);
+        out.write(MEDICINES_HEADER);
+        out.write('\n');
+        for (Medicine med : list) {
+            sb.setLength(0);
+            out.append(appendMedicineRow(sb, med)).write('\n');
+        }
+    }
+
     // Load Customer data from CSV
-    public static MyLinkedList<Customer> loadCustomers(String filepath) {
-        MyLinkedList<Customer> list = new MyLinkedList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 4) {
-                    String password = parts.length > 4 ? parts[4].trim() : ""; // Handle existing records without password
+    public static MyList<Customer> loadCustomers(String filepath) {
+        MyArrayList<Customer> list = new MyArrayList<>();
+        try (CsvReader csv = CsvReader.open(filepath)) {
+            list.ensureCapacity(expectedDataRows(csv));
+            csv.nextRow(); // skip header
+            while (csv.nextRow()) {
+                if (csv.fieldCount() >= 4) {
+                    String password = csv.fieldCount() > 4 ? csv.string(4) : ""; // Handle existing records without password
                     Customer customer = new Customer(
-                            parts[0].trim(),
-                            parts[1].trim(),
-                            parts[2].trim(),
-                            parts[3].trim(),
+                            csv.string(0),
+                            csv.string(1),
+                            csv.string(2),
+                            csv.string(3),
                             password
                     );
                     list.add(customer);
@@ -84,18 +147,14 @@ public class CSVUtility {
     }
 
     // Save Customer data to CSV
-    public static void saveCustomers(String filepath, MyLinkedList<Customer> list) {
+    public static void saveCustomers(String filepath, MyList<Customer> list) {
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(filepath))) {
-            bw.write("customerId,name,phoneNumber,email,password\n");
-            for (int i = 0; i < list.size(); i++) {
-                Customer cust = list.get(i);
-                bw.write(String.join(",",
-                        cust.getCustomerId(),
-                        cust.getName(),
-                        cust.getPhoneNumber(),
-                        cust.getEmail(),
-                        cust.getPassword()
-                ));
+            StringBuilder sb = new StringBuilder(128);
+            bw.write(CUSTOMERS_HEADER);
+            bw.newLine();
+            for (Customer cust : list) {
+                sb.setLength(0);
+                bw.append(appendCustomerRow(sb, cust));
                 bw.newLine();
             }
         } catch (IOException e) {
@@ -104,49 +163,158 @@ public class CSVUtility {
     }
 
     // Load Transaction data from CSV
-    public static MyLinkedList<Transaction> loadTransactions(String filepath) {
-        MyLinkedList<Transaction> list = new MyLinkedList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 6) {
-                    Transaction tx = new Transaction(
-                            parts[0].trim(),
-                            parts[1].trim(),
-                            parts[2].trim(),
-                            Integer.parseInt(parts[3].trim()),
-                            Double.parseDouble(parts[4].trim()),
-                            LocalDate.parse(parts[5].trim())
+    public static TransactionColumns loadTransactions(String filepath) {
+        TransactionColumns columns = new TransactionColumns();
+        try (CsvReader csv = CsvReader.open(filepath)) {
+            columns.ensureCapacity(expectedDataRows(csv));
+            csv.nextRow(); // skip header
+            readTransactionRows(csv, columns);
+        } catch (IOException e) {
+            System.out.println("Error reading transactions CSV: " + e.getMessage());
+        }
+        return columns;
+    }
+
+    // Same rows as loadTransactions(filepath), parsed in parallel: the file is split into
+    // line-aligned byte ranges, each range is parsed into its own columns on a ForkJoinPool
+    // worker, and the parts are appended in file order. Small files and parallelism 1 load
+    // sequentially. Transaction rows never contain quoted line breaks, which the split relies on.
+    public static TransactionColumns loadTransactions(String filepath, int parallelism) {
+        if (parallelism <= 1) return loadTransactions(filepath);
+        long[] bounds;
+        try {
+            bounds = CsvReader.splitLines(filepath, parallelism * RANGES_PER_WORKER, MIN_RANGE_BYTES);
+        } catch (IOException e) {
+            System.out.println("Error reading transactions CSV: " + e.getMessage());
+            return new TransactionColumns();
+        }
+        if (bounds.length <= 2) return loadTransactions(filepath);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            MyArrayList<ForkJoinTask<TransactionColumns>> parts = new MyArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean header = i == 0;
+                parts.add(pool.submit(() -> loadTransactionRange(filepath, start, end, header)));
+            }
+            // Later ranges keep parsing while earlier ones are merged
+            TransactionColumns columns = parts.get(0).join();
+            for (int i = 1; i < parts.size(); i++) {
+                columns.appendAll(parts.get(i).join());
+                parts.set(i, null); // let the merged part be collected
+            }
+            return columns;
+        } catch (UncheckedIOException e) {
+            // A range that failed would leave a gap in the history; drop the parts and load the
+            // whole file sequentially instead
+            System.out.println("Error reading transactions CSV in parallel (" + e.getCause().getMessage()
+                    + "), loading sequentially");
+            pool.shutdownNow();
+            return loadTransactions(filepath);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Parse one byte range; an IOException is rethrown unchecked so the whole load can react to it
+    private static TransactionColumns loadTransactionRange(String filepath, long start, long end, boolean header) {
+        TransactionColumns columns = new TransactionColumns();
+        try (CsvReader csv = CsvReader.open(filepath, start, end)) {
+            columns.ensureCapacity(header ? expectedDataRows(csv) : csv.estimateLineCount());
+            if (header) csv.nextRow(); // skip header
+            readTransactionRows(csv, columns);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return columns;
+    }
+
+    // Parse every remaining row of the reader into the columns
+    private static void readTransactionRows(CsvReader csv, TransactionColumns columns) throws IOException {
+        while (csv.nextRow()) {
+            if (csv.fieldCount() == 6) {
+                // Fields are parsed in place from the read buffer and rows go straight into the
+                // columns; the only Strings are customer/medicine IDs, shared through the reader's
+                // cache and the columns' ID dictionaries
+                try {
+                    CharSequence transactionId = csv.field(0);
+                    columns.add(
+                            TransactionId.parseMostSignificantBits(transactionId),
+                            TransactionId.parseLeastSignificantBits(transactionId),
+                            csv.string(1),
+                            csv.string(2),
+                            csv.intField(3),
+                            Money.parseCents(csv.field(4)),
+                            IsoDate.parse(csv.field(5))
                     );
-                    list.add(tx);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    // A row torn by a crash mid-append is skipped, the rest of the journal still loads
+                    System.out.println("Skipping malformed transaction row: " + csv.line());
                 }
+            } else {
+                System.out.println("Skipping malformed transaction row: " + csv.line());
             }
-        } catch (IOException e) {
-            System.out.println("Error reading transactions CSV: " + e.getMessage());
         }
-        return list;
     }
 
     // Save Transaction data to CSV
-    public static void saveTransactions(String filepath, MyLinkedList<Transaction> list) {
+    public static void saveTransactions(String filepath, TransactionColumns columns) {
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(filepath))) {
-            bw.write("transactionId,customerId,medicineId,quantity,totalAmount,transactionDate\n");
-            for (int i = 0; i < list.size(); i++) {
-                Transaction tx = list.get(i);
-                bw.write(String.join(",",
-                        tx.getTransactionId(),
-                        tx.getCustomerId(),
-                        tx.getMedicineId(),
-                        String.valueOf(tx.getQuantity()),
-                        String.valueOf(tx.getTotalAmount()),
-                        tx.getTransactionDate().toString()
-                ));
+            StringBuilder sb = new StringBuilder(128);
+            bw.write(TRANSACTIONS_HEADER);
+            bw.newLine();
+            for (int row = 0; row < columns.size(); row++) {
+                sb.setLength(0);
+                bw.append(appendTransactionRow(sb, columns, row));
                 bw.newLine();
             }
         } catch (IOException e) {
             System.out.println("Error writing transactions CSV: " + e.getMessage());
         }
     }
+
+    // Append one history row in CSV form (no line terminator), shared by the full save and the journal
+    public static StringBuilder appendTransactionRow(StringBuilder sb, TransactionColumns columns, int row) {
+        sb.append(columns.formatTransactionId(row)).append(',');
+        appendField(sb, columns.customerIdOf(columns.getCustomerCode(row))).append(',');
+        appendField(sb, columns.medicineIdOf(columns.getMedicineCode(row))).append(',')
+                .append(columns.getQuantity(row)).append(',');
+        Money.appendTo(sb, columns.getAmountCents(row)).append(',');
+        return IsoDate.appendTo(sb, columns.getEpochDay(row));
+    }
+
+    public static StringBuilder appendCustomerRow(StringBuilder sb, Customer cust) {
+        appendField(sb, cust.getCustomerId()).append(',');
+        appendField(sb, cust.getName()).append(',');
+        appendField(sb, cust.getPhoneNumber()).append(',');
+        appendField(sb, cust.getEmail()).append(',');
+        return appendField(sb, cust.getPassword());
+    }
+
+    // Whole-file CSV text, built on the caller's thread for saves handed to the background writer
+    public static String formatMedicines(Iterable<Medicine> list) {
+        StringBuilder sb = new StringBuilder(4096).append(MEDICINES_HEADER).append('\n');
+        for (Medicine med : list) {
+            appendMedicineRow(sb, med).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static String formatCustomers(Iterable<Customer> list) {
+        StringBuilder sb = new StringBuilder(4096).append(CUSTOMERS_HEADER).append('\n');
+        for (Customer cust : list) {
+            appendCustomerRow(sb, cust).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static String formatTransactions(TransactionColumns columns) {
+        StringBuilder sb = new StringBuilder(80 * columns.size() + 128).append(TRANSACTIONS_HEADER).append('\n');
+        for (int row = 0; row < columns.size(); row++) {
+            appendTransactionRow(sb, columns, row).append('\n');
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,389 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Row-at-a-time CSV reader. The file is read in 1 MB windows with positional FileChannel reads into
+// one reusable byte array; a row cut off at the end of a window is slid to the front before the
+// next read, so every byte is read once and nothing is allocated per window. (Memory-mapping gained
+// nothing here: scanning a byte array measured about 3x faster than per-byte MappedByteBuffer.get
+// on JDK 17, so the mapped bytes had to be copied out anyway, and mappings are only released by GC.)
+// Rows are scanned from the array and fields are handed out as reusable CharSequence views, so
+// numbers, amounts and dates parse in place
+// (Integer.parseInt(CharSequence, ...), Money.parseCents, IsoDate.parse) without a String per
+// field. Only string(i) creates Strings, and repeated values come from a small cache.
+// Fields may be quoted ("a, b" or "say ""hi"""); quoted fields can contain commas and line breaks.
+// Unquoted fields are trimmed like String.trim(). Views are only valid until the next nextRow().
+public class CsvReader implements Closeable {
+    private static final int WINDOW_SIZE = 1 << 20;
+    private static final int STRING_CACHE_SIZE = 4096; // power of two
+    private static final int MAX_CACHED_LENGTH = 64;
+
+    private final FileChannel channel;
+    private final long rangeStart;
+    private final long rangeEnd; // the reader stops here; the file size unless reading a range
+    private final int windowSize;
+    private final byte[] window;
+    private final ByteBuffer windowBuffer; // wraps window, for channel reads
+    private long windowStart;
+    private int windowLimit;
+    private int position; // next unread byte in the window
+
+    // Current row
+    private int rowStart;
+    private int rowEnd;
+    private int fieldCount;
+    private int[] fieldStart = new int[8];
+    private int[] fieldEnd = new int[8];
+    private boolean[] fieldQuoted = new boolean[8];
+    private Field[] fields = new Field[8];
+
+    // Strings made by string(i), found again by their bytes
+    private final String[] cachedStrings = new String[STRING_CACHE_SIZE];
+    private final int[] cachedHashes = new int[STRING_CACHE_SIZE];
+    private int cachedCount;
+
+    private CsvReader(FileChannel channel, long start, long end, int windowSize) throws IOException {
+        this.channel = channel;
+        this.rangeStart = start;
+        this.rangeEnd = end;
+        this.windowSize = windowSize;
+        window = new byte[(int) Math.min(windowSize, end - start)];
+        windowBuffer = ByteBuffer.wrap(window);
+        windowStart = start;
+        refill();
+    }
+
+    public static CsvReader open(String filepath) throws IOException {
+        return open(filepath, 0, -1, WINDOW_SIZE);
+    }
+
+    // Read only bytes [start, end) of the file; start must be the beginning of a line
+    // (see splitLines). Rows are not expected to carry line breaks inside quotes.
+    public static CsvReader open(String filepath, long start, long end) throws IOException {
+        return open(filepath, start, end, WINDOW_SIZE);
+    }
+
+    // Smaller windows are only useful for exercising rows that straddle a window boundary
+    static CsvReader open(String filepath, int windowSize) throws IOException {
+        return open(filepath, 0, -1, windowSize);
+    }
+
+    private static CsvReader open(String filepath, long start, long end, int windowSize) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long rangeEnd = end < 0 ? size : Math.min(end, size);
+            return new CsvReader(channel, Math.min(start, rangeEnd), rangeEnd, windowSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Split a file into at most `parts` byte ranges of similar size, each starting at the
+    // beginning of a line. Returns the boundaries: range i is [bounds[i], bounds[i + 1]).
+    // Ranges smaller than minRangeBytes are not created, so small files give a single range.
+    public static long[] splitLines(String filepath, int parts, long minRangeBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) Math.max(1, Math.min(parts, size / Math.max(1, minRangeBytes)));
+            long[] bounds = new long[count + 1];
+            int used = 1;
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+            for (int i = 1; i < count; i++) {
+                long boundary = lineStartAtOrAfter(channel, size, size * i / count, probe);
+                if (boundary > bounds[used - 1] && boundary < size) bounds[used++] = boundary;
+            }
+            bounds[used++] = size;
+            return Arrays.copyOf(bounds, used);
+        }
+    }
+
+    // Offset of the first line starting at or after `offset`
+    private static long lineStartAtOrAfter(FileChannel channel, long size, long offset, ByteBuffer probe)
+            throws IOException {
+        long position = Math.max(0, offset - 1); // a line starts at offset if the byte before it is '\n'
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Slide the unread bytes to the front of the window and fill the rest from the file
+    private void refill() throws IOException {
+        int kept = windowLimit - position;
+        System.arraycopy(window, position, window, 0, kept);
+        windowStart += position;
+        windowLimit = (int) Math.min(window.length, rangeEnd - windowStart);
+        windowBuffer.limit(windowLimit).position(kept);
+        while (windowBuffer.hasRemaining()) {
+            long offset = windowStart + windowBuffer.position();
+            if (channel.read(windowBuffer, offset) < 0) {
+                throw new IOException("File ended at offset " + offset + " while reading it");
+            }
+        }
+        position = 0;
+    }
+
+    private boolean windowReachesEnd() {
+        return windowStart + windowLimit >= rangeEnd;
+    }
+
+    // Number of lines in the file (or range), for pre-sizing before a load: exact when it fits in
+    // one window, otherwise extrapolated from the first window, so no extra pass over the file
+    public int estimateLineCount() {
+        int lines = 0;
+        for (int i = 0; i < windowLimit; i++) {
+            if (window[i] == '\n') lines++;
+        }
+        if (windowReachesEnd()) {
+            return windowLimit > 0 && window[windowLimit - 1] != '\n' ? lines + 1 : lines;
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, (double) lines * (rangeEnd - rangeStart) / windowLimit * 1.01 + 1);
+    }
+
+    // Advance to the next non-empty row; false at end of file
+    public boolean nextRow() throws IOException {
+        while (true) {
+            if (position >= windowLimit) {
+                if (windowReachesEnd()) return false;
+                refill();
+            }
+            int end = scanRow(position);
+            if (end < 0) {
+                // The row runs past this window: move it to the front, read on and scan again
+                if (position == 0) {
+                    throw new IOException("CSV row longer than " + windowSize + " bytes at offset " + windowStart);
+                }
+                refill();
+                continue;
+            }
+            rowStart = position;
+            rowEnd = end;
+            position = end < windowLimit ? end + 1 : end; // step over the '\n'
+            if (!isBlankRow()) return true;
+        }
+    }
+
+    private boolean isBlankRow() {
+        return fieldCount == 1 && !fieldQuoted[0] && fieldStart[0] == fieldEnd[0];
+    }
+
+    // Split the row starting at `from` into fields; returns the index of its '\n' (or of the end
+    // of file), or -1 if the row is cut off by the end of the window
+    private int scanRow(int from) {
+        fieldCount = 0;
+        int i = from;
+        while (true) {
+            // Leading blanks of a field
+            while (i < windowLimit && isBlank(window[i])) i++;
+            if (i < windowLimit && window[i] == '"') {
+                int start = ++i;
+                while (true) {
+                    if (i >= windowLimit) return windowReachesEnd() ? unterminatedQuote(start, i) : -1;
+                    if (window[i] == '"') {
+                        if (i + 1 < windowLimit && window[i + 1] == '"') {
+                            i += 2; // escaped quote
+                            continue;
+                        }
+                        if (i + 1 >= windowLimit && !windowReachesEnd()) return -1;
+                        break;
+                    }
+                    i++;
+                }
+                addField(start, i, true);
+                i++; // closing quote
+                // Anything between the closing quote and the separator is ignored
+                while (i < windowLimit && window[i] != ',' && window[i] != '\n') i++;
+            } else {
+                int start = i;
+                while (i < windowLimit && window[i] != ',' && window[i] != '\n') i++;
+                int end = i;
+                while (end > start && isBlank(window[end - 1])) end--;
+                addField(start, end, false);
+            }
+            if (i >= windowLimit) return windowReachesEnd() ? i : -1;
+            if (window[i] == '\n') return i;
+            i++; // ','
+        }
+    }
+
+    // A quote left open at end of file: take the rest of the file as the field
+    private int unterminatedQuote(int start, int end) {
+        addField(start, end, true);
+        return end;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private void addField(int start, int end, boolean quoted) {
+        if (fieldCount == fieldStart.length) {
+            int capacity = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, capacity);
+            fieldEnd = Arrays.copyOf(fieldEnd, capacity);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, capacity);
+            fields = Arrays.copyOf(fields, capacity);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // View of a field's text; reused for every row, so copy it (string(i)) to keep it
+    public CharSequence field(int index) {
+        checkIndex(index);
+        Field field = fields[index];
+        if (field == null) field = fields[index] = new Field();
+        field.bind(fieldStart[index], fieldEnd[index], fieldQuoted[index]);
+        return field;
+    }
+
+    public int intField(int index) {
+        CharSequence text = field(index);
+        return Integer.parseInt(text, 0, text.length(), 10);
+    }
+
+    // Field as a String; short ASCII values are cached, so repeated IDs share one instance
+    public String string(int index) {
+        checkIndex(index);
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        int length = end - start;
+        if (fieldQuoted[index] || length > MAX_CACHED_LENGTH) return decode(index);
+
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            byte b = window[i];
+            if (b < 0) return decode(index); // non-ASCII, let the decoder handle it
+            hash = 31 * hash + b; // String.hashCode for ASCII text
+        }
+        int mask = STRING_CACHE_SIZE - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            String cached = cachedStrings[slot];
+            if (cached == null) {
+                String value = decode(index);
+                // Keep the table at most 3/4 full; past that new values are simply not cached
+                if (cachedCount < STRING_CACHE_SIZE / 4 * 3) {
+                    cachedStrings[slot] = value;
+                    cachedHashes[slot] = hash;
+                    cachedCount++;
+                }
+                return value;
+            }
+            if (cachedHashes[slot] == hash && sameText(cached, start, end)) return cached;
+        }
+    }
+
+    // Fibonacci mixing, as short IDs have near-consecutive String hashes
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean sameText(String text, int start, int end) {
+        if (text.length() != end - start) return false;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i - start) != window[i]) return false;
+        }
+        return true;
+    }
+
+    private String decode(int index) {
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        String text = new String(window, start, end - start, StandardCharsets.UTF_8);
+        return fieldQuoted[index] && text.indexOf('"') >= 0 ? text.replace("\"\"", "\"") : text;
+    }
+
+    // Raw text of the current row, for error messages
+    public String line() {
+        return new String(window, rowStart, rowEnd - rowStart, StandardCharsets.UTF_8).trim();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Field text read straight from the window bytes. Bytes are widened to chars, which is
+    // exact for the ASCII numbers, dates and IDs it is parsed as; string(i) decodes UTF-8 properly.
+    private final class Field implements CharSequence {
+        private int start;
+        private int end;
+        private boolean quoted;
+        private StringBuilder unescaped; // only for quoted fields containing ""
+
+        void bind(int start, int end, boolean quoted) {
+            this.start = start;
+            this.end = end;
+            this.quoted = quoted;
+            if (quoted && containsQuote()) {
+                if (unescaped == null) unescaped = new StringBuilder();
+                unescaped.setLength(0);
+                for (int i = start; i < end; i++) {
+                    byte b = window[i];
+                    unescaped.append((char) (b & 0xFF));
+                    if (b == '"') i++; // "" stands for one quote
+                }
+            } else {
+                this.quoted = false;
+            }
+        }
+
+        private boolean containsQuote() {
+            for (int i = start; i < end; i++) {
+                if (window[i] == '"') return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int length() {
+            return quoted ? unescaped.length() : end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (quoted) return unescaped.charAt(index);
+            if (index < 0 || index >= end - start) throw new IndexOutOfBoundsException("Index " + index);
+            return (char) (window[start + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            if (quoted) return unescaped.toString();
+            return new String(window, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+}
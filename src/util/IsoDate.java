@@ -0,0 +1,95 @@
+package util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// yyyy-MM-dd dates as int epoch days (days since 1970-01-01, same numbering as
+// LocalDate.toEpochDay). Parsing and formatting are plain arithmetic, with no
+// DateTimeFormatter and no LocalDate per call, for CSV loading and saving.
+public class IsoDate {
+    // Parse a strict yyyy-MM-dd date; throws DateTimeParseException like LocalDate.parse
+    public static int parse(CharSequence text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw new DateTimeParseException("Invalid date, expected yyyy-MM-dd", text, 0);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new DateTimeParseException("Invalid date", text, 0);
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') throw new DateTimeParseException("Invalid date, expected yyyy-MM-dd", text, i);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Days from civil date (proleptic Gregorian), counting years from March so leap days come last
+    public static int toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Format an epoch day as yyyy-MM-dd
+    public static String format(int epochDay) {
+        return appendTo(new StringBuilder(10), epochDay).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder sb, int epochDay) {
+        // Inverse of toEpochDay
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            // Outside four-digit years, defer to LocalDate's signed/expanded form
+            return sb.append(LocalDate.ofEpochDay(epochDay));
+        }
+        pad(sb, year, 4).append('-');
+        pad(sb, month, 2).append('-');
+        return pad(sb, day, 2);
+    }
+
+    private static StringBuilder pad(StringBuilder sb, int value, int width) {
+        for (int limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) sb.append('0');
+        }
+        return sb.append(value);
+    }
+
+    // Today as an epoch day
+    public static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+// Money as a long count of cents (paise): sums are exact and need no boxing or rounding.
+// Parsing and formatting are done by hand so the hot paths skip Double.parseDouble and
+// String.format.
+public class Money {
+    // Largest whole part that still leaves room for the cents without overflowing a long
+    private static final long MAX_WHOLE = Long.MAX_VALUE / 100 - 1;
+
+    // Parse a decimal amount such as "20", "3.5" or "12.99" into cents.
+    // Digits past the second decimal place round half up. Amounts too large for a long
+    // count of cents are rejected with NumberFormatException, like any other bad amount.
+    public static long parseCents(CharSequence text) {
+        if (text == null) throw new NumberFormatException("Amount is missing");
+        int i = 0;
+        int end = text.length();
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long whole = 0;
+        int wholeDigits = 0;
+        for (; i < end && text.charAt(i) != '.'; i++) {
+            whole = whole * 10 + digit(text, i);
+            if (whole > MAX_WHOLE) throw new NumberFormatException("Amount out of range: " + text);
+            wholeDigits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < end) {
+            // Skip the decimal point
+            for (i++; i < end; i++) {
+                int d = digit(text, i);
+                if (fractionDigits < 2) fraction = fraction * 10 + d;
+                else if (fractionDigits == 2) roundUp = d >= 5;
+                fractionDigits++;
+            }
+        }
+        if (wholeDigits == 0 && fractionDigits == 0) throw new NumberFormatException("Invalid amount: " + text);
+        if (fractionDigits == 1) fraction *= 10;
+
+        long cents = whole * 100 + fraction + (roundUp ? 1 : 0);
+        return negative ? -cents : cents;
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') throw new NumberFormatException("Invalid amount: " + text);
+        return c - '0';
+    }
+
+    // Append cents as a plain decimal with two places ("945.70") without intermediate strings
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) sb.append('-');
+        long whole = Math.abs(cents / 100);
+        int fraction = (int) Math.abs(cents % 100);
+        sb.append(whole).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+
+    // Line total for a unit price, failing loudly instead of wrapping on overflow
+    public static long times(long unitCents, int quantity) {
+        return Math.multiplyExact(unitCents, quantity);
+    }
+}
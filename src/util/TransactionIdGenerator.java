@@ -0,0 +1,33 @@
+package util;
+
+import model.TransactionId;
+
+import java.security.SecureRandom;
+
+// Time-ordered transaction IDs in the UUID version 7 layout:
+//   48-bit Unix millisecond timestamp | version 7 | 12-bit counter
+//   variant 10 | 62-bit node ID picked once per process
+// The counter orders IDs created in the same millisecond; when it runs out the timestamp is
+// borrowed forward by one, so IDs from one process are strictly increasing even if the clock
+// steps back. SecureRandom is only used once, for the node ID.
+public class TransactionIdGenerator {
+    private static final long COUNTER_MASK = 0xFFFL;
+    private static final long NODE_ID = new SecureRandom().nextLong() & 0x3FFFFFFFFFFFFFFFL;
+
+    private static long lastMillis = -1;
+    private static long counter;
+
+    public static synchronized TransactionId next() {
+        long now = System.currentTimeMillis();
+        if (now > lastMillis) {
+            lastMillis = now;
+            counter = 0;
+        } else if (++counter > COUNTER_MASK) {
+            lastMillis++;
+            counter = 0;
+        }
+        long msb = (lastMillis << 16) | 0x7000L | counter;
+        long lsb = 0x8000000000000000L | NODE_ID;
+        return new TransactionId(msb, lsb);
+    }
+}
@@ -0,0 +1,115 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Runnable comparison of BKTree.search against a linear scan that computes the edit distance to
+// every name. Builds a catalog of generated medicine names, searches it with misspelled queries at
+// several distance bounds, checks that both return the same items at the same distances, and
+// prints the time each takes.
+// Run with the compiled sources on the classpath; exits with status 1 on the first mismatch.
+public class BKTreeBenchmark {
+    private static final int NAMES = 50_000;
+    private static final int QUERIES = 200;
+    private static final String[] SYLLABLES = {
+            "pa", "ra", "ce", "ta", "mol", "ibu", "pro", "fen", "amo", "xi", "cil", "lin",
+            "met", "for", "min", "ator", "va", "sta", "tin", "lo", "sar", "tan", "zol", "ine"};
+
+    public static void main(String[] args) {
+        Random random = new Random(6);
+        MyArrayList<String> names = new MyArrayList<>(NAMES);
+        MyArrayList<Integer> ids = new MyArrayList<>(NAMES);
+        for (int i = 0; i < NAMES; i++) {
+            names.add(randomName(random));
+            ids.add(i);
+        }
+        BKTree<Integer> tree = BKTree.of(ids, names::get);
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = misspell(names.get(random.nextInt(NAMES)), random);
+        }
+
+        for (int maxDistance = 1; maxDistance <= 3; maxDistance++) {
+            long treeNanos = 0;
+            long scanNanos = 0;
+            int matches = 0;
+            for (String query : queries) {
+                long start = System.nanoTime();
+                MyList<Integer> found = tree.search(query, maxDistance);
+                treeNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                MyList<Integer> scanned = linearScan(names, query, maxDistance);
+                scanNanos += System.nanoTime() - start;
+
+                check(sameMatches(found, scanned, names, query),
+                        "results for '" + query + "' within " + maxDistance + " edits");
+                matches += found.size();
+            }
+            System.out.printf("Distance %d: %d matches, BK-tree %.1f ms, linear scan %.1f ms (%.1fx)%n",
+                    maxDistance, matches, treeNanos / 1e6, scanNanos / 1e6, (double) scanNanos / treeNanos);
+        }
+        System.out.println("BKTree: results match the linear scan");
+    }
+
+    private static MyList<Integer> linearScan(MyList<String> names, String query, int maxDistance) {
+        MyArrayList<Integer> found = new MyArrayList<>();
+        String needle = query.trim().toLowerCase();
+        for (int i = 0; i < names.size(); i++) {
+            if (BKTree.distance(names.get(i).trim().toLowerCase(), needle) <= maxDistance) found.add(i);
+        }
+        return found;
+    }
+
+    // Same items, and the tree lists them closest first
+    private static boolean sameMatches(MyList<Integer> found, MyList<Integer> scanned, MyList<String> names, String query) {
+        if (found.size() != scanned.size()) return false;
+        int[] a = new int[found.size()];
+        int[] b = new int[scanned.size()];
+        int previous = 0;
+        for (int i = 0; i < a.length; i++) {
+            a[i] = found.get(i);
+            b[i] = scanned.get(i);
+            int dist = BKTree.distance(names.get(a[i]).toLowerCase(), query.toLowerCase());
+            if (dist < previous) return false;
+            previous = dist;
+        }
+        Arrays.sort(a);
+        Arrays.sort(b);
+        return Arrays.equals(a, b);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int parts = 2 + random.nextInt(3);
+        for (int i = 0; i < parts; i++) sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        return sb.toString();
+    }
+
+    // One or two random edits: substitution, insertion or deletion
+    private static String misspell(String name, Random random) {
+        StringBuilder sb = new StringBuilder(name.toLowerCase());
+        int edits = 1 + random.nextInt(2);
+        for (int i = 0; i < edits && sb.length() > 1; i++) {
+            int at = random.nextInt(sb.length());
+            char c = (char) ('a' + random.nextInt(26));
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                sb.setCharAt(at, c);
+            } else if (kind == 1) {
+                sb.insert(at, c);
+            } else {
+                sb.deleteCharAt(at);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            System.out.println("FAILED: " + what);
+            System.exit(1);
+        }
+    }
+}
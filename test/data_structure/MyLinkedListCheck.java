@@ -0,0 +1,141 @@
+package data_structure;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Runnable behavior check for MyLinkedList: growth through the tail pointer, removal at the
+// head, middle and tail (the tail pointer must follow), removeIf, iterator removal, fail-fast
+// iteration, and full scans whose cost grows linearly with the list.
+// Run with the compiled sources on the classpath; exits with status 1 on the first failure.
+public class MyLinkedListCheck {
+    public static void main(String[] args) {
+        growth();
+        removal();
+        iteration();
+        linearScans();
+        System.out.println("MyLinkedList: all checks passed");
+    }
+
+    private static void growth() {
+        MyLinkedList<Integer> list = new MyLinkedList<>();
+        check(list.isEmpty() && list.size() == 0, "new list is empty");
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i);
+            check(list.get(list.size() - 1) == i, "last element after add " + i);
+        }
+        check(list.size() == 100_000, "size after 100k adds");
+        int expected = 0;
+        for (int value : list) {
+            check(value == expected++, "insertion order at " + value);
+        }
+        list.clear();
+        check(list.isEmpty() && !list.iterator().hasNext(), "cleared list is empty");
+        list.add(7);
+        check(list.size() == 1 && list.get(0) == 7, "add after clear");
+    }
+
+    private static void removal() {
+        MyLinkedList<Integer> list = listOf(0, 1, 2, 3, 4);
+        list.remove(0);
+        check(contents(list).equals("1,2,3,4"), "remove head");
+        list.remove(1);
+        check(contents(list).equals("1,3,4"), "remove middle");
+        list.remove(list.size() - 1);
+        check(contents(list).equals("1,3"), "remove tail");
+        list.add(9); // goes after the new tail
+        check(contents(list).equals("1,3,9") && list.get(2) == 9, "add after removing the tail");
+        expectThrows(IndexOutOfBoundsException.class, () -> list.remove(3), "remove past the end");
+        expectThrows(IndexOutOfBoundsException.class, () -> list.get(-1), "negative index");
+
+        MyLinkedList<Integer> evens = listOf(0, 1, 2, 3, 4, 5, 6, 7);
+        check(evens.removeIf(v -> v % 2 == 1), "removeIf reports a removal");
+        check(contents(evens).equals("0,2,4,6"), "removeIf keeps the rest in order");
+        check(!evens.removeIf(v -> v > 100), "removeIf without a match");
+        check(evens.removeIf(v -> v == 6) && evens.get(evens.size() - 1) == 4, "removeIf of the tail");
+        evens.add(8);
+        check(contents(evens).equals("0,2,4,8"), "add after removeIf of the tail");
+        check(evens.removeIf(v -> true) && evens.isEmpty(), "removeIf of everything");
+        evens.add(1);
+        check(contents(evens).equals("1"), "add after emptying with removeIf");
+    }
+
+    private static void iteration() {
+        MyLinkedList<Integer> list = listOf(0, 1, 2, 3, 4, 5);
+        Iterator<Integer> it = list.iterator();
+        while (it.hasNext()) {
+            if (it.next() % 3 == 0) it.remove();
+        }
+        check(contents(list).equals("1,2,4,5"), "iterator remove");
+        Iterator<Integer> last = list.iterator();
+        while (last.hasNext()) last.next();
+        last.remove(); // removes the tail
+        expectThrows(NoSuchElementException.class, last::next, "next past the end");
+        list.add(6);
+        check(contents(list).equals("1,2,4,6"), "iterator remove of the tail");
+        expectThrows(IllegalStateException.class, () -> list.iterator().remove(), "remove before next");
+
+        Iterator<Integer> stale = list.iterator();
+        stale.next();
+        list.add(7);
+        expectThrows(ConcurrentModificationException.class, stale::next, "next after add");
+        Iterator<Integer> staleAfterSort = list.iterator();
+        list.sort(Integer::compare);
+        expectThrows(ConcurrentModificationException.class, staleAfterSort::next, "next after sort");
+    }
+
+    // A full scan of 4x the elements must cost roughly 4x, not 16x as with get(i) per index
+    private static void linearScans() {
+        long small = scanNanos(250_000);
+        long large = scanNanos(1_000_000);
+        System.out.printf("Full scan: 250k in %.1f ms, 1M in %.1f ms%n", small / 1e6, large / 1e6);
+        check(large < small * 10, "full scan time grows linearly");
+    }
+
+    private static long scanNanos(int n) {
+        MyLinkedList<Integer> list = new MyLinkedList<>();
+        for (int i = 0; i < n; i++) list.add(i);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int value : list) sum += value;
+            best = Math.min(best, System.nanoTime() - start);
+            check(sum == (long) n * (n - 1) / 2, "scan visits every element");
+        }
+        return best;
+    }
+
+    private static MyLinkedList<Integer> listOf(int... values) {
+        MyLinkedList<Integer> list = new MyLinkedList<>();
+        for (int value : values) list.add(value);
+        return list;
+    }
+
+    private static String contents(MyLinkedList<Integer> list) {
+        StringBuilder sb = new StringBuilder();
+        for (int value : list) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(value);
+        }
+        check(list.size() == (sb.length() == 0 ? 0 : sb.toString().split(",").length), "size matches iteration");
+        return sb.toString();
+    }
+
+    private static void expectThrows(Class<? extends RuntimeException> type, Runnable action, String what) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            check(type.isInstance(e), what + ": expected " + type.getSimpleName() + ", got " + e);
+            return;
+        }
+        check(false, what + ": expected " + type.getSimpleName());
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            System.out.println("FAILED: " + what);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package data_structure;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Runnable check for MyRingBufferQueue under each FullPolicy: REJECT refuses elements once the
+// ring is full, BLOCK puts and takes sleep (thread state WAITING, not spinning) until the other
+// side publishes, and SPILL returns overflowed elements in order whether they came through put or
+// offer. Several producers and consumers sharing a small BLOCK or SPILL queue must deliver every
+// element exactly once, with each producer's elements reaching every consumer in put order.
+// Run with the compiled sources on the classpath; exits with status 1 on the first failure.
+public class MyRingBufferQueueCheck {
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 3;
+    private static final int PER_PRODUCER = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        reject();
+        block();
+        spillOrder();
+        stress(MyRingBufferQueue.FullPolicy.BLOCK);
+        stress(MyRingBufferQueue.FullPolicy.SPILL);
+        System.out.println("MyRingBufferQueue: all checks passed");
+    }
+
+    private static void reject() {
+        MyRingBufferQueue<Integer> queue = new MyRingBufferQueue<>(5, MyRingBufferQueue.FullPolicy.REJECT);
+        check(queue.capacity() == 8, "capacity rounds up to a power of two");
+        for (int i = 0; i < 8; i++) check(queue.put(i), "put " + i + " within capacity");
+        check(!queue.put(8) && !queue.offer(8), "put and offer rejected when full");
+        check(queue.size() == 8, "rejected element not counted");
+        check(queue.poll() == 0 && queue.put(8), "put accepted once a slot is free");
+        MyArrayList<Integer> drained = new MyArrayList<>();
+        check(queue.drainTo(drained, 5) == 5 && drained.get(0) == 1 && drained.get(4) == 5, "drainTo in order");
+        check(queue.drainTo(drained, 100) == 3 && drained.get(7) == 8, "drainTo the rest");
+        check(queue.poll() == null && queue.isEmpty(), "drained queue is empty");
+    }
+
+    private static void block() throws InterruptedException {
+        MyRingBufferQueue<Integer> queue = new MyRingBufferQueue<>(2, MyRingBufferQueue.FullPolicy.BLOCK);
+        check(queue.put(0) && queue.put(1), "put within capacity");
+        check(!queue.offer(2), "offer does not wait when full");
+
+        boolean[] result = new boolean[1];
+        Thread producer = new Thread(() -> result[0] = queue.put(2));
+        producer.start();
+        awaitWaiting(producer, "producer blocked on a full ring");
+        check(queue.poll() == 0, "poll while a producer waits");
+        producer.join(5000);
+        check(!producer.isAlive() && result[0], "freed slot wakes the producer");
+        check(queue.poll() == 1 && queue.poll() == 2, "woken producer's element follows");
+
+        Thread interrupted = new Thread(() -> {
+            queue.put(3);
+            queue.put(4);
+            result[0] = queue.put(5);
+            check(Thread.currentThread().isInterrupted(), "interrupt status kept");
+        });
+        interrupted.start();
+        awaitWaiting(interrupted, "producer blocked before the interrupt");
+        interrupted.interrupt();
+        interrupted.join(5000);
+        check(!interrupted.isAlive() && !result[0], "interrupted put returns false");
+        check(queue.size() == 2, "interrupted element not queued");
+        queue.poll();
+        queue.poll();
+
+        Integer[] taken = new Integer[1];
+        Thread consumer = new Thread(() -> {
+            try {
+                taken[0] = queue.take();
+            } catch (InterruptedException e) {
+                taken[0] = -1;
+            }
+        });
+        consumer.start();
+        awaitWaiting(consumer, "consumer blocked on an empty ring");
+        check(queue.put(6), "put while a consumer waits");
+        consumer.join(5000);
+        check(!consumer.isAlive() && taken[0] == 6, "publish wakes the consumer");
+
+        Thread cancelled = new Thread(() -> {
+            try {
+                taken[0] = queue.take();
+            } catch (InterruptedException e) {
+                taken[0] = -1;
+            }
+        });
+        cancelled.start();
+        awaitWaiting(cancelled, "consumer blocked before the interrupt");
+        cancelled.interrupt();
+        cancelled.join(5000);
+        check(!cancelled.isAlive() && taken[0] == -1, "interrupted take throws");
+    }
+
+    private static void spillOrder() {
+        MyRingBufferQueue<Integer> queue = new MyRingBufferQueue<>(8, MyRingBufferQueue.FullPolicy.SPILL);
+        for (int i = 0; i < 30; i++) check(queue.put(i), "put " + i + " past capacity");
+        check(queue.size() == 30, "size counts spilled elements");
+        for (int i = 0; i < 5; i++) check(queue.poll() == i, "poll " + i + " from the ring");
+        for (int i = 30; i < 35; i++) check(queue.put(i), "put " + i + " while elements are spilled");
+        // The ring has free slots now, but offer must still queue behind the spilled elements
+        for (int i = 35; i < 40; i++) check(queue.offer(i), "offer " + i + " while elements are spilled");
+        for (int i = 5; i < 40; i++) check(queue.poll() == i, "poll " + i + " in put order");
+        check(queue.poll() == null && queue.isEmpty(), "drained queue is empty");
+        for (int i = 0; i < 12; i++) check(queue.offer(i), "offer " + i + " spills past capacity");
+        for (int i = 0; i < 12; i++) check(queue.poll() == i, "poll offered " + i + " in order");
+    }
+
+    // Elements encode producer * PER_PRODUCER + sequence; consumers stop at a -1 each
+    private static void stress(MyRingBufferQueue.FullPolicy policy) throws InterruptedException {
+        MyRingBufferQueue<Integer> queue = new MyRingBufferQueue<>(64, policy);
+        AtomicIntegerArray delivered = new AtomicIntegerArray(PRODUCERS * PER_PRODUCER);
+        AtomicInteger failures = new AtomicInteger();
+
+        Thread[] threads = new Thread[PRODUCERS + CONSUMERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int seq = 0; seq < PER_PRODUCER; seq++) {
+                    if (!queue.put(producer * PER_PRODUCER + seq)) failures.incrementAndGet();
+                }
+            });
+        }
+        for (int c = 0; c < CONSUMERS; c++) {
+            threads[PRODUCERS + c] = new Thread(() -> {
+                int[] lastSeen = new int[PRODUCERS];
+                Arrays.fill(lastSeen, -1);
+                while (true) {
+                    int value;
+                    try {
+                        value = queue.take();
+                    } catch (InterruptedException e) {
+                        failures.incrementAndGet();
+                        return;
+                    }
+                    if (value < 0) return;
+                    int producer = value / PER_PRODUCER;
+                    int seq = value % PER_PRODUCER;
+                    if (seq <= lastSeen[producer]) failures.incrementAndGet(); // out of order
+                    lastSeen[producer] = seq;
+                    if (delivered.getAndIncrement(value) != 0) failures.incrementAndGet(); // duplicate
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) thread.start();
+        for (int p = 0; p < PRODUCERS; p++) threads[p].join();
+        for (int c = 0; c < CONSUMERS; c++) check(queue.put(-1), "stop marker queued");
+        for (Thread thread : threads) {
+            thread.join(60_000);
+            check(!thread.isAlive(), policy + ": thread still running, a wakeup was lost");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        check(failures.get() == 0, failures.get() + " rejected, duplicated or reordered elements");
+        for (int i = 0; i < delivered.length(); i++) {
+            check(delivered.get(i) == 1, "element " + i + " delivered exactly once");
+        }
+        check(queue.isEmpty(), "queue empty after the stress run");
+        System.out.printf("%s: %d producers, %d consumers, %d elements in %.1f ms%n", policy,
+                PRODUCERS, CONSUMERS, PRODUCERS * PER_PRODUCER, elapsed / 1e6);
+    }
+
+    private static void awaitWaiting(Thread thread, String what) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING) {
+            check(thread.isAlive() && System.currentTimeMillis() < deadline, what);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            System.out.println("FAILED: " + what);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package util;
+
+import storage.TransactionColumns;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+
+// Runnable check that the parallel transaction loader reads exactly what the sequential one does.
+// Writes a transactions file large enough to be split into several ranges (mixed LF and CRLF
+// line endings, malformed rows, no newline after the last row), loads it sequentially and with
+// several parallelism levels, and compares every row and both ID dictionaries.
+// Run with the compiled sources on the classpath; exits with status 1 on the first mismatch.
+public class TransactionLoadCheck {
+    private static final int ROWS = 400_000;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("transactions", ".csv");
+        try {
+            writeSample(file);
+            TransactionColumns expected = CSVUtility.loadTransactions(file.toString());
+            System.out.println("Sequential: " + expected.size() + " rows");
+            for (int parallelism : new int[]{2, 3, 4, 8}) {
+                TransactionColumns actual = CSVUtility.loadTransactions(file.toString(), parallelism);
+                String mismatch = compare(expected, actual);
+                if (mismatch != null) {
+                    System.out.println("Parallelism " + parallelism + ": " + mismatch);
+                    System.exit(1);
+                }
+                System.out.println("Parallelism " + parallelism + ": identical");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeSample(Path file) throws IOException {
+        Random random = new Random(25);
+        try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            bw.write("transactionId,customerId,medicineId,quantity,totalAmount,transactionDate\n");
+            for (int i = 0; i < ROWS; i++) {
+                if (i % 50_000 == 7) {
+                    bw.write("torn-row,C001\n"); // skipped by both loaders
+                    continue;
+                }
+                bw.write(new UUID(random.nextLong(), random.nextLong()).toString());
+                bw.write(",C" + String.format("%03d", random.nextInt(500)));
+                bw.write(",MED" + String.format("%03d", random.nextInt(300)));
+                int quantity = 1 + random.nextInt(20);
+                bw.write("," + quantity + "," + quantity * (1 + random.nextInt(900)) + "." + random.nextInt(10));
+                bw.write(",2025-" + String.format("%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)));
+                if (i == ROWS - 1) break; // last row without a line break
+                bw.write(random.nextInt(10) == 0 ? "\r\n" : "\n");
+            }
+        }
+    }
+
+    // Description of the first difference, or null if the columns hold the same rows
+    private static String compare(TransactionColumns expected, TransactionColumns actual) {
+        if (expected.size() != actual.size()) {
+            return "row count " + actual.size() + ", expected " + expected.size();
+        }
+        if (expected.distinctCustomers() != actual.distinctCustomers()
+                || expected.distinctMedicines() != actual.distinctMedicines()) {
+            return "ID dictionary sizes differ";
+        }
+        for (int row = 0; row < expected.size(); row++) {
+            if (!expected.formatTransactionId(row).equals(actual.formatTransactionId(row))
+                    || !expected.customerIdOf(expected.getCustomerCode(row))
+                            .equals(actual.customerIdOf(actual.getCustomerCode(row)))
+                    || !expected.medicineIdOf(expected.getMedicineCode(row))
+                            .equals(actual.medicineIdOf(actual.getMedicineCode(row)))
+                    || expected.getQuantity(row) != actual.getQuantity(row)
+                    || expected.getAmountCents(row) != actual.getAmountCents(row)
+                    || expected.getEpochDay(row) != actual.getEpochDay(row)) {
+                return "row " + row + " differs";
+            }
+        }
+        return null;
+    }
+}